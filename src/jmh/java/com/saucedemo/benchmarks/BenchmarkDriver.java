@@ -0,0 +1,40 @@
+package com.saucedemo.benchmarks;
+
+import com.saucedemo.utils.DriverBinaryResolver;
+import com.saucedemo.utils.LocalSauceDemoServer;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.time.Duration;
+
+/**
+ * Headless браузер для бенчмарков, направленный на локальный сервер-заглушку,
+ * чтобы в замеры не попадала сетевая задержка
+ */
+final class BenchmarkDriver {
+
+    private BenchmarkDriver() {
+        // Утилитарный класс
+    }
+
+    static WebDriver create() {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--headless=new");
+        options.addArguments("--window-size=1280,800");
+        options.addArguments("--disable-notifications");
+
+        ChromeDriverService service = new ChromeDriverService.Builder()
+                .usingDriverExecutable(DriverBinaryResolver.getChromeDriver().toFile())
+                .usingAnyFreePort()
+                .build();
+        WebDriver driver = new ChromeDriver(service, options);
+        driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        return driver;
+    }
+
+    static String baseUrl() {
+        return LocalSauceDemoServer.getInstance().getBaseUrl();
+    }
+}
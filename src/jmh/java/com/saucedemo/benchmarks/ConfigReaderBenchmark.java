@@ -0,0 +1,42 @@
+package com.saucedemo.benchmarks;
+
+import com.saucedemo.utils.ConfigReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Чтение конфигурации из нескольких потоков одновременно,
+ * как это делают параллельные воркеры JUnit
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class ConfigReaderBenchmark {
+
+    @Benchmark
+    public String getPropertyContended() {
+        return ConfigReader.getInstance().getProperty("browser");
+    }
+
+    @Benchmark
+    public String getPropertyWithDefaultContended() {
+        return ConfigReader.getInstance().getProperty("explicit.wait", "10");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String getPropertyUncontended() {
+        return ConfigReader.getInstance().getProperty("browser");
+    }
+}
@@ -0,0 +1,58 @@
+package com.saucedemo.benchmarks;
+
+import com.saucedemo.pages.LoginPage;
+import com.saucedemo.pages.ProductsPage;
+import org.openqa.selenium.WebDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полный сценарий: открыть страницу логина, войти и дождаться страницы продуктов
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LoginFlowBenchmark {
+    private WebDriver driver;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        driver = BenchmarkDriver.create();
+        baseUrl = BenchmarkDriver.baseUrl();
+        driver.get(baseUrl);
+    }
+
+    @Setup(Level.Invocation)
+    public void logout() {
+        driver.manage().deleteAllCookies();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        driver.quit();
+    }
+
+    @Benchmark
+    public boolean login() {
+        LoginPage loginPage = new LoginPage(driver);
+        loginPage.open(baseUrl);
+        loginPage.login("standard_user", "secret_sauce");
+        return new ProductsPage(driver).isProductsPageDisplayed();
+    }
+}
@@ -0,0 +1,124 @@
+package com.saucedemo.benchmarks;
+
+import com.saucedemo.pages.LoginPage;
+import com.saucedemo.pages.ProductsPage;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость создания page objects (сгенерированные локаторы или PageFactory,
+ * см. page.locators) и разрешения их элементов. Каждая страница открыта в своем
+ * браузере: LoginPage - на странице логина, ProductsPage - на странице продуктов
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageObjectBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class LoginPageState {
+        WebDriver driver;
+        LoginPage page;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            driver = BenchmarkDriver.create();
+            driver.get(BenchmarkDriver.baseUrl());
+            page = new LoginPage(driver);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            driver.quit();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ProductsPageState {
+        WebDriver driver;
+        ProductsPage page;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            driver = BenchmarkDriver.create();
+            String baseUrl = BenchmarkDriver.baseUrl();
+            driver.get(baseUrl);
+            driver.manage().addCookie(new Cookie("session-username", "standard_user"));
+            driver.get(baseUrl + "inventory.html");
+            page = new ProductsPage(driver);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            driver.quit();
+        }
+    }
+
+    @Benchmark
+    public Object initElementsLoginPage(LoginPageState state) {
+        return new LoginPage(state.driver);
+    }
+
+    @Benchmark
+    public Object initElementsProductsPage(ProductsPageState state) {
+        return new ProductsPage(state.driver);
+    }
+
+    /**
+     * Новая страница: первое обращение к каждому полю ищет элемент в браузере
+     */
+    @Benchmark
+    public LoginPage resolveLoginFieldsCold(LoginPageState state) {
+        LoginPage page = new LoginPage(state.driver);
+        page.enterUsername("standard_user");
+        page.enterPassword("secret_sauce");
+        return page;
+    }
+
+    /**
+     * Та же страница: поля уже разрешены (или закэшированы, element.cache.enabled)
+     */
+    @Benchmark
+    public LoginPage resolveLoginFieldsWarm(LoginPageState state) {
+        state.page.enterUsername("standard_user");
+        state.page.enterPassword("secret_sauce");
+        return state.page;
+    }
+
+    @Benchmark
+    public boolean loginErrorProbe(LoginPageState state) {
+        // Ошибки до сабмита нет - проверка отсутствия
+        return state.page.isErrorMessageDisplayed();
+    }
+
+    @Benchmark
+    public boolean resolveProductsMenu(ProductsPageState state) {
+        return state.page.isMenuDisplayed();
+    }
+
+    @Benchmark
+    public String resolveProductsTitle(ProductsPageState state) {
+        return state.page.getPageTitle();
+    }
+
+    @Benchmark
+    public boolean productsPageDisplayed(ProductsPageState state) {
+        return state.page.isProductsPageDisplayed();
+    }
+}
@@ -44,7 +44,7 @@ public class Constants {
     // Таймауты
     public static final int IMPLICIT_WAIT = ConfigReader.getInstance().getImplicitWait();
     public static final int PAGE_LOAD_TIMEOUT = ConfigReader.getInstance().getPageLoadTimeout();
-    public static final int EXPLICIT_WAIT = 10;
+    public static final int EXPLICIT_WAIT = ConfigReader.getInstance().getExplicitWait();
     
     // Настройки отчетов
     public static final boolean SCREENSHOT_ON_FAILURE = 
@@ -53,7 +53,8 @@ public class Constants {
         ConfigReader.getInstance().getScreenshotDirectory();
     
     // Тестовые граничные значения
-    public static final long PERFORMANCE_THRESHOLD_MS = 10000; // 10 секунд
+    public static final long PERFORMANCE_THRESHOLD_MS = 
+        ConfigReader.getInstance().getPerformanceThresholdMs();
     public static final int MAX_LOGIN_ATTEMPTS = 3;
     
     // URL endpoints
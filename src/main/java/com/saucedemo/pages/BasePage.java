@@ -1,17 +1,239 @@
 package com.saucedemo.pages;
 
+import com.saucedemo.constants.Constants;
+import com.saucedemo.utils.CommandMetrics;
+import com.saucedemo.utils.ConfigReader;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 
 public abstract class BasePage {
     protected WebDriver driver;
     protected static final Logger logger = LogManager.getLogger(BasePage.class);
-    
+    // Кэш найденных элементов @FindBy; null, если кэш отключен (element.cache.enabled=false)
+    private final CachingElementLocatorFactory elementCache;
+
+    /**
+     * Ожидание в браузере через MutationObserver: скрипт завершается сразу,
+     * как только DOM придет в нужное состояние, либо по собственному таймауту.
+     * arguments: тип локатора, локатор, условие, таймаут (мс), callback
+     */
+    private static final String AWAIT_DOM_SCRIPT = """
+            var type = arguments[0], locator = arguments[1], condition = arguments[2];
+            var timeout = arguments[3], done = arguments[arguments.length - 1];
+            function find() {
+                if (type === 'xpath') {
+                    return document.evaluate(locator, document, null,
+                        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+                }
+                return document.querySelector(locator);
+            }
+            function visible(el) {
+                var style = window.getComputedStyle(el);
+                return style.visibility !== 'hidden' && style.display !== 'none'
+                    && el.getClientRects().length > 0;
+            }
+            function satisfied() {
+                var el = find();
+                if (condition === 'ABSENT') { return !el || !visible(el); }
+                if (condition === 'VISIBLE') { return !!el && visible(el); }
+                return !!el;
+            }
+            if (satisfied()) { done(true); return; }
+            var finished = false, timer, observer;
+            function finish(result) {
+                if (finished) { return; }
+                finished = true;
+                observer.disconnect();
+                clearTimeout(timer);
+                done(result);
+            }
+            observer = new MutationObserver(function () { if (satisfied()) { finish(true); } });
+            observer.observe(document.documentElement, {
+                childList: true, subtree: true, attributes: true, characterData: true
+            });
+            timer = setTimeout(function () { finish(satisfied()); }, timeout);
+            """;
+
+    /**
+     * Состояние элемента, которого ожидает страница
+     */
+    protected enum WaitCondition {
+        PRESENT, VISIBLE, ABSENT
+    }
+
+    /**
+     * Сгенерированные при компиляции локаторы по классу страницы; ищутся один раз на класс.
+     * Пусто, если для класса ничего не сгенерировано
+     */
+    private static final ClassValue<Optional<PageLocators<BasePage>>> GENERATED_LOCATORS = new ClassValue<>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Optional<PageLocators<BasePage>> computeValue(Class<?> pageClass) {
+            try {
+                Class<?> generated = Class.forName(pageClass.getName() + PageLocators.SUFFIX, true,
+                        pageClass.getClassLoader());
+                return Optional.of((PageLocators<BasePage>) generated.getDeclaredConstructor().newInstance());
+            } catch (ClassNotFoundException e) {
+                logger.debug("Для {} нет сгенерированных локаторов - используется PageFactory",
+                        pageClass.getSimpleName());
+                return Optional.empty();
+            } catch (ReflectiveOperationException e) {
+                logger.warn("Не удалось создать локаторы {}: {}", pageClass.getSimpleName(), e.getMessage());
+                return Optional.empty();
+            }
+        }
+    };
+
     public BasePage(WebDriver driver) {
         this.driver = driver;
-        PageFactory.initElements(driver, this);
+        ConfigReader config = ConfigReader.getInstance();
+        elementCache = config.isElementCacheEnabled() ? new CachingElementLocatorFactory(driver) : null;
+
+        Optional<PageLocators<BasePage>> generated = "generated".equals(config.getPageLocators())
+                ? GENERATED_LOCATORS.get(getClass()) : Optional.empty();
+        if (generated.isPresent()) {
+            // Поля заполняются сгенерированным кодом - без рефлексии и динамических прокси
+            generated.get().initElements(this, new PageElementBinder(driver, elementCache));
+        } else if (elementCache != null) {
+            PageFactory.initElements(new StaleAwareFieldDecorator(elementCache), this);
+        } else {
+            PageFactory.initElements(driver, this);
+        }
         logger.debug("Инициализирована страница: {}", this.getClass().getSimpleName());
     }
+    
+    /**
+     * Включен ли пакетный режим взаимодействия (batch.mode=true)
+     */
+    protected boolean isBatchMode() {
+        return ConfigReader.getInstance().isBatchMode() && driver instanceof JavascriptExecutor;
+    }
+    
+    /**
+     * Новая пакетная последовательность действий на этой странице
+     */
+    protected PageActionBatch batch() {
+        return new PageActionBatch(driver);
+    }
+    
+    /**
+     * Сбрасывает закэшированные элементы; вызывается при навигации страницы
+     */
+    protected void invalidateElementCache() {
+        if (elementCache != null) {
+            elementCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Снимает метрики производительности текущей страницы (page.metrics.enabled)
+     * и сравнивает их с базовыми для pageName
+     */
+    protected void capturePageMetrics(String pageName) {
+        PagePerformanceProbe.capture(driver, pageName, Duration.ofSeconds(Constants.EXPLICIT_WAIT).toMillis());
+    }
+
+    /**
+     * Отмечает начало перехода на следующую страницу, чтобы измерить переход
+     * без новой навигации (одностраничное приложение)
+     */
+    protected void markPageTransition() {
+        PagePerformanceProbe.markTransition(driver);
+    }
+
+    /**
+     * То же для пакетного режима: отметка ставится первым шагом пакета
+     */
+    protected PageActionBatch markPageTransition(PageActionBatch batch) {
+        return PagePerformanceProbe.markTransition(batch);
+    }
+
+    /**
+     * Ожидает видимости элемента с таймаутом по умолчанию (Constants.EXPLICIT_WAIT)
+     */
+    protected WebElement waitForVisible(By locator) {
+        return waitForVisible(locator, Duration.ofSeconds(Constants.EXPLICIT_WAIT));
+    }
+
+    protected WebElement waitForVisible(By locator, Duration timeout) {
+        if (!waitUntil(locator, WaitCondition.VISIBLE, timeout)) {
+            throw new TimeoutException("Элемент " + locator + " не отобразился за "
+                    + timeout.toMillis() + " мс");
+        }
+        return driver.findElement(locator);
+    }
+
+    /**
+     * Проверка без ожидания: отображается ли элемент прямо сейчас
+     */
+    protected boolean isDisplayedNow(By locator) {
+        List<WebElement> elements = driver.findElements(locator);
+        return !elements.isEmpty() && elements.get(0).isDisplayed();
+    }
+
+    /**
+     * Ожидает наступления условия не дольше timeout.
+     * Возвращает false по истечении таймаута вместо исключения
+     */
+    protected boolean waitUntil(By locator, WaitCondition condition, Duration timeout) {
+        long start = System.nanoTime();
+        boolean result;
+        ScriptLocator scriptLocator = ScriptLocator.of(locator);
+        if (scriptLocator != null && driver instanceof JavascriptExecutor) {
+            result = awaitDom(scriptLocator, locator, condition, timeout, start);
+        } else {
+            result = poll(locator, condition, timeout);
+        }
+        long elapsedMicros = (System.nanoTime() - start) / 1000;
+        CommandMetrics.recordWait(condition.name(), elapsedMicros);
+        logger.debug("Ожидание {} для {} заняло {} мс (результат: {})", condition, locator,
+                elapsedMicros / 1000, result);
+        return result;
+    }
+
+    private boolean awaitDom(ScriptLocator scriptLocator, By locator, WaitCondition condition,
+                             Duration timeout, long start) {
+        try {
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(AWAIT_DOM_SCRIPT,
+                    scriptLocator.type, scriptLocator.value, condition.name(), timeout.toMillis());
+            return Boolean.TRUE.equals(result);
+        } catch (WebDriverException e) {
+            // Скрипт прерывается при переходе на другую страницу - дожидаемся опросом
+            Duration remaining = timeout.minusNanos(System.nanoTime() - start);
+            logger.debug("Ожидание через MutationObserver прервано ({}), переход на опрос", e.getClass().getSimpleName());
+            return !remaining.isNegative() && poll(locator, condition, remaining);
+        }
+    }
+
+    private boolean poll(By locator, WaitCondition condition, Duration timeout) {
+        WebDriverWait wait = new WebDriverWait(driver, timeout, Duration.ofMillis(100));
+        try {
+            switch (condition) {
+                case VISIBLE:
+                    wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+                    break;
+                case ABSENT:
+                    wait.until(ExpectedConditions.invisibilityOfElementLocated(locator));
+                    break;
+                default:
+                    wait.until(ExpectedConditions.presenceOfElementLocated(locator));
+            }
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,47 @@
+package com.saucedemo.pages;
+
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.util.List;
+
+/**
+ * Локатор, запоминающий найденный элемент до навигации страницы
+ * или до появления StaleElementReferenceException.
+ * Списки элементов не кэшируются - их состав может меняться.
+ */
+class CachingElementLocator implements ElementLocator {
+    private final ElementLocator delegate;
+    private volatile WebElement cachedElement;
+
+    CachingElementLocator(ElementLocator delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public WebElement findElement() {
+        WebElement element = cachedElement;
+        if (element != null) {
+            ElementCacheStats.recordHit();
+            return element;
+        }
+        ElementCacheStats.recordMiss();
+        element = delegate.findElement();
+        cachedElement = element;
+        return element;
+    }
+
+    @Override
+    public List<WebElement> findElements() {
+        return delegate.findElements();
+    }
+
+    void invalidate() {
+        cachedElement = null;
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package com.saucedemo.pages;
+
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocatorFactory;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Фабрика кэширующих локаторов одной страницы.
+ * Хранит созданные локаторы, чтобы сбросить кэш целиком при навигации.
+ */
+class CachingElementLocatorFactory implements ElementLocatorFactory {
+    private final DefaultElementLocatorFactory delegate;
+    private final List<CachingElementLocator> locators = new CopyOnWriteArrayList<>();
+
+    CachingElementLocatorFactory(SearchContext searchContext) {
+        this.delegate = new DefaultElementLocatorFactory(searchContext);
+    }
+
+    @Override
+    public ElementLocator createLocator(Field field) {
+        ElementLocator locator = delegate.createLocator(field);
+        return locator != null ? track(locator) : null;
+    }
+
+    /**
+     * Кэширующая обертка локатора, сбрасываемая вместе с остальными локаторами страницы
+     */
+    CachingElementLocator track(ElementLocator locator) {
+        CachingElementLocator cachingLocator = new CachingElementLocator(locator);
+        locators.add(cachingLocator);
+        return cachingLocator;
+    }
+
+    void invalidateAll() {
+        locators.forEach(CachingElementLocator::invalidate);
+    }
+}
@@ -0,0 +1,73 @@
+package com.saucedemo.pages;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Статистика кэша элементов page objects за прогон
+ */
+public final class ElementCacheStats {
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder staleRefreshes = new LongAdder();
+
+    private ElementCacheStats() {
+        // Утилитарный класс
+    }
+
+    static void recordHit() {
+        hits.increment();
+    }
+
+    static void recordMiss() {
+        misses.increment();
+    }
+
+    static void recordStaleRefresh() {
+        staleRefreshes.increment();
+    }
+
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    public static long getStaleRefreshes() {
+        return staleRefreshes.sum();
+    }
+
+    /**
+     * Доля обращений к элементам, обслуженных без findElement
+     */
+    public static double getHitRatio() {
+        long total = getHits() + getMisses();
+        return total == 0 ? 0 : (double) getHits() / total;
+    }
+
+    public static void reset() {
+        hits.reset();
+        misses.reset();
+        staleRefreshes.reset();
+    }
+
+    /**
+     * Значения для отчета прогона: hits, misses, staleRefreshes, hitRatio
+     */
+    public static Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", getHits());
+        stats.put("misses", getMisses());
+        stats.put("staleRefreshes", getStaleRefreshes());
+        stats.put("hitRatio", Math.round(getHitRatio() * 1000) / 1000.0);
+        return stats;
+    }
+
+    public static String summary() {
+        return String.format("попаданий: %d, промахов: %d, обновлений устаревших: %d, hit ratio: %.2f",
+                getHits(), getMisses(), getStaleRefreshes(), getHitRatio());
+    }
+}
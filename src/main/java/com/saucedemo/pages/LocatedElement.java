@@ -0,0 +1,186 @@
+package com.saucedemo.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Coordinates;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Элемент страницы для сгенерированных локаторов: каждый вызов находит элемент
+ * через локатор и делегирует ему. Замена прокси PageFactory без рефлексии;
+ * закэшированный элемент, ставший устаревшим, переразрешается один раз
+ * (как в StaleAwareFieldDecorator)
+ */
+final class LocatedElement implements WebElement, WrapsElement, Locatable {
+    private final ElementLocator locator;
+
+    LocatedElement(ElementLocator locator) {
+        this.locator = locator;
+    }
+
+    private <T> T call(Function<WebElement, T> action) {
+        try {
+            return action.apply(locator.findElement());
+        } catch (StaleElementReferenceException e) {
+            if (!(locator instanceof CachingElementLocator)) {
+                throw e;
+            }
+        }
+        // Элемент из кэша устарел - находим заново и повторяем вызов один раз
+        ElementCacheStats.recordStaleRefresh();
+        ((CachingElementLocator) locator).invalidate();
+        return action.apply(locator.findElement());
+    }
+
+    private void run(Consumer<WebElement> action) {
+        call(element -> {
+            action.accept(element);
+            return null;
+        });
+    }
+
+    @Override
+    public void click() {
+        run(WebElement::click);
+    }
+
+    @Override
+    public void submit() {
+        run(WebElement::submit);
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        run(element -> element.sendKeys(keysToSend));
+    }
+
+    @Override
+    public void clear() {
+        run(WebElement::clear);
+    }
+
+    @Override
+    public String getTagName() {
+        return call(WebElement::getTagName);
+    }
+
+    @Override
+    public String getDomProperty(String name) {
+        return call(element -> element.getDomProperty(name));
+    }
+
+    @Override
+    public String getDomAttribute(String name) {
+        return call(element -> element.getDomAttribute(name));
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        return call(element -> element.getAttribute(name));
+    }
+
+    @Override
+    public String getAriaRole() {
+        return call(WebElement::getAriaRole);
+    }
+
+    @Override
+    public String getAccessibleName() {
+        return call(WebElement::getAccessibleName);
+    }
+
+    @Override
+    public boolean isSelected() {
+        return call(WebElement::isSelected);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return call(WebElement::isEnabled);
+    }
+
+    @Override
+    public String getText() {
+        return call(WebElement::getText);
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return call(element -> element.findElements(by));
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return call(element -> element.findElement(by));
+    }
+
+    @Override
+    public SearchContext getShadowRoot() {
+        return call(WebElement::getShadowRoot);
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        return call(WebElement::isDisplayed);
+    }
+
+    @Override
+    public Point getLocation() {
+        return call(WebElement::getLocation);
+    }
+
+    @Override
+    public Dimension getSize() {
+        return call(WebElement::getSize);
+    }
+
+    @Override
+    public Rectangle getRect() {
+        return call(WebElement::getRect);
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        return call(element -> element.getCssValue(propertyName));
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) throws WebDriverException {
+        return call(element -> element.getScreenshotAs(target));
+    }
+
+    @Override
+    public WebElement getWrappedElement() {
+        // Элемент отдается наружу: закэшированный проверяем запросом, чтобы устаревший
+        // переразрешился здесь, а не у вызывающего
+        return call(element -> {
+            if (locator instanceof CachingElementLocator) {
+                element.isEnabled();
+            }
+            return element;
+        });
+    }
+
+    @Override
+    public Coordinates getCoordinates() {
+        return call(element -> ((Locatable) element).getCoordinates());
+    }
+
+    @Override
+    public String toString() {
+        return "Element for: " + locator;
+    }
+}
@@ -1,64 +1,100 @@
 package com.saucedemo.pages;
 
+import com.saucedemo.constants.Constants;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 
 public class LoginPage extends BasePage {
     
-    @FindBy(id = "user-name")
-    private WebElement usernameInput;
+    private static final By USERNAME_INPUT = By.id(Constants.USERNAME_INPUT_ID);
+    private static final By PASSWORD_INPUT = By.id(Constants.PASSWORD_INPUT_ID);
+    private static final By LOGIN_BUTTON = By.id(Constants.LOGIN_BUTTON_ID);
+    private static final By ERROR_MESSAGE = By.cssSelector(Constants.ERROR_MESSAGE_CSS);
     
-    @FindBy(id = "password")
-    private WebElement passwordInput;
+    // Поля @FindBy не private: их заполняет сгенерированный LoginPageLocators
+    @FindBy(id = Constants.USERNAME_INPUT_ID)
+    WebElement usernameInput;
     
-    @FindBy(id = "login-button")
-    private WebElement loginButton;
+    @FindBy(id = Constants.PASSWORD_INPUT_ID)
+    WebElement passwordInput;
     
-    @FindBy(css = "[data-test='error']")
-    private WebElement errorMessage;
+    @FindBy(id = Constants.LOGIN_BUTTON_ID)
+    WebElement loginButton;
+    
+    // Форма дождалась отображения после последнего open(); поля формы появляются вместе
+    private boolean formReady;
     
     public LoginPage(WebDriver driver) {
         super(driver);
     }
     
     public void open(String url) {
+        invalidateElementCache();
+        formReady = false;
         driver.get(url);
         logger.info("Открыта страница: {}", url);
+        capturePageMetrics(Constants.LOGIN_PAGE_NAME);
     }
     
     public void enterUsername(String username) {
+        waitForForm();
         usernameInput.clear();
         usernameInput.sendKeys(username);
         logger.info("Введен username: {}", username);
     }
     
     public void enterPassword(String password) {
+        waitForForm();
         passwordInput.clear();
         passwordInput.sendKeys(password);
         logger.info("Введен пароль");
     }
     
     public void clickLoginButton() {
+        waitForForm();
         loginButton.click();
         logger.info("Нажата кнопка логина");
     }
     
     public void login(String username, String password) {
+        if (isBatchMode()) {
+            // Отметка перехода, ввод обоих полей и клик - один запрос к драйверу
+            markPageTransition(batch()).fill(USERNAME_INPUT, username)
+                    .fill(PASSWORD_INPUT, password)
+                    .click(LOGIN_BUTTON)
+                    .execute();
+            logger.info("Выполнен логин (пакетный режим) для пользователя: {}", username);
+            return;
+        }
+        markPageTransition();
         enterUsername(username);
         enterPassword(password);
         clickLoginButton();
         logger.info("Выполнен логин для пользователя: {}", username);
     }
     
+    /**
+     * Поля @FindBy разрешаются без ожидания: после open() один раз ждем,
+     * пока отобразится форма (кнопка логина)
+     */
+    private void waitForForm() {
+        if (!formReady) {
+            waitForVisible(LOGIN_BUTTON);
+            formReady = true;
+        }
+    }
+    
     public String getErrorMessage() {
-        String error = errorMessage.getText();
+        String error = waitForVisible(ERROR_MESSAGE).getText();
         logger.info("Получено сообщение об ошибке: {}", error);
         return error;
     }
     
     public boolean isErrorMessageDisplayed() {
-        boolean displayed = errorMessage.isDisplayed();
+        // Ошибка появляется синхронно при сабмите формы, поэтому проверяем без ожидания
+        boolean displayed = isDisplayedNow(ERROR_MESSAGE);
         logger.debug("Сообщение об ошибке отображается: {}", displayed);
         return displayed;
     }
@@ -0,0 +1,173 @@
+package com.saucedemo.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Последовательность действий на странице (ввод, клик, чтение),
+ * выполняемая одним скриптом - то есть за один запрос к драйверу
+ * вместо отдельного запроса на каждое действие.
+ * Действие, вызывающее переход на другую страницу, должно быть последним.
+ */
+public class PageActionBatch {
+
+    /**
+     * arguments[0] - список шагов {op, type, locator, value, key}; шаг mark ставит
+     * отметку Performance API с именем value.
+     * Ввод выполняется через нативный setter value и событие input,
+     * чтобы его увидели обработчики React.
+     */
+    private static final String BATCH_SCRIPT = """
+            var steps = arguments[0], reads = {};
+            function find(step) {
+                if (step.type === 'xpath') {
+                    return document.evaluate(step.locator, document, null,
+                        XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+                }
+                return document.querySelector(step.locator);
+            }
+            function visible(el) {
+                var style = window.getComputedStyle(el);
+                return style.visibility !== 'hidden' && style.display !== 'none'
+                    && el.getClientRects().length > 0;
+            }
+            for (var i = 0; i < steps.length; i++) {
+                var step = steps[i];
+                if (step.op === 'mark') {
+                    performance.clearMarks(step.value);
+                    performance.mark(step.value);
+                    continue;
+                }
+                var el = find(step);
+                if (step.op === 'displayed') { reads[step.key] = !!el && visible(el); continue; }
+                if (!el) { return {failedStep: i, reads: reads}; }
+                if (step.op === 'text') {
+                    reads[step.key] = el.innerText.trim();
+                } else if (step.op === 'fill') {
+                    el.focus();
+                    var proto = Object.getPrototypeOf(el);
+                    var setter = Object.getOwnPropertyDescriptor(proto, 'value').set;
+                    setter.call(el, step.value);
+                    el.dispatchEvent(new Event('input', {bubbles: true}));
+                    el.dispatchEvent(new Event('change', {bubbles: true}));
+                } else if (step.op === 'click') {
+                    el.click();
+                }
+            }
+            return {failedStep: -1, reads: reads};
+            """;
+
+    private final WebDriver driver;
+    private final List<Map<String, Object>> steps = new ArrayList<>();
+    private final List<By> locators = new ArrayList<>();
+
+    public PageActionBatch(WebDriver driver) {
+        if (!(driver instanceof JavascriptExecutor)) {
+            throw new IllegalArgumentException("Пакетный режим требует драйвер с поддержкой JavaScript");
+        }
+        this.driver = driver;
+    }
+
+    /**
+     * Очищает поле и вводит значение
+     */
+    public PageActionBatch fill(By locator, String value) {
+        return addStep("fill", locator, value, null);
+    }
+
+    public PageActionBatch click(By locator) {
+        return addStep("click", locator, null, null);
+    }
+
+    /**
+     * Ставит отметку Performance API (например, начало перехода для метрик страницы)
+     */
+    public PageActionBatch mark(String name) {
+        Map<String, Object> step = new HashMap<>();
+        step.put("op", "mark");
+        step.put("value", name);
+        steps.add(step);
+        locators.add(null);
+        return this;
+    }
+
+    /**
+     * Читает видимый текст элемента в результат под ключом key
+     */
+    public PageActionBatch readText(String key, By locator) {
+        return addStep("text", locator, null, key);
+    }
+
+    /**
+     * Читает признак видимости элемента; отсутствие элемента - false
+     */
+    public PageActionBatch readDisplayed(String key, By locator) {
+        return addStep("displayed", locator, null, key);
+    }
+
+    /**
+     * Выполняет все шаги одним скриптом.
+     * Если элемент для ввода, клика или чтения текста не найден, выбрасывает NoSuchElementException
+     */
+    @SuppressWarnings("unchecked")
+    public BatchResult execute() {
+        Map<String, Object> response = (Map<String, Object>) ((JavascriptExecutor) driver)
+                .executeScript(BATCH_SCRIPT, steps);
+        // Скрипт с переходом на другую страницу может не вернуть результат
+        if (response == null) {
+            return new BatchResult(Collections.emptyMap());
+        }
+
+        int failedStep = ((Number) response.get("failedStep")).intValue();
+        if (failedStep >= 0) {
+            throw new NoSuchElementException("Пакетное действие '" + steps.get(failedStep).get("op")
+                    + "': элемент " + locators.get(failedStep) + " не найден");
+        }
+        Map<String, Object> reads = (Map<String, Object>) response.get("reads");
+        return new BatchResult(reads == null ? Collections.emptyMap() : reads);
+    }
+
+    private PageActionBatch addStep(String op, By locator, String value, String key) {
+        ScriptLocator scriptLocator = ScriptLocator.of(locator);
+        if (scriptLocator == null) {
+            throw new IllegalArgumentException("Локатор " + locator + " не поддерживается пакетным режимом");
+        }
+        Map<String, Object> step = new HashMap<>();
+        step.put("op", op);
+        step.put("type", scriptLocator.type);
+        step.put("locator", scriptLocator.value);
+        step.put("value", value);
+        step.put("key", key);
+        steps.add(step);
+        locators.add(locator);
+        return this;
+    }
+
+    /**
+     * Результаты чтений пакета
+     */
+    public static class BatchResult {
+        private final Map<String, Object> reads;
+
+        BatchResult(Map<String, Object> reads) {
+            this.reads = reads;
+        }
+
+        public String getText(String key) {
+            Object value = reads.get(key);
+            return value == null ? null : value.toString();
+        }
+
+        public boolean isDisplayed(String key) {
+            return Boolean.TRUE.equals(reads.get(key));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.saucedemo.pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Создает элементы для сгенерированных локаторов страницы.
+ * Элементы разрешаются лениво при каждом обращении, как и у PageFactory,
+ * но без динамических прокси; при включенном кэше используются кэширующие локаторы
+ */
+public final class PageElementBinder {
+    private final SearchContext searchContext;
+    // null, если кэш элементов отключен
+    private final CachingElementLocatorFactory elementCache;
+
+    PageElementBinder(SearchContext searchContext, CachingElementLocatorFactory elementCache) {
+        this.searchContext = searchContext;
+        this.elementCache = elementCache;
+    }
+
+    public WebElement element(By by) {
+        ElementLocator locator = new ByElementLocator(searchContext, by);
+        return new LocatedElement(elementCache != null ? elementCache.track(locator) : locator);
+    }
+
+    /**
+     * Список элементов; не кэшируется - его состав может меняться
+     */
+    public List<WebElement> elements(By by) {
+        ElementLocator locator = new ByElementLocator(searchContext, by);
+        return new AbstractList<>() {
+            @Override
+            public WebElement get(int index) {
+                return locator.findElements().get(index);
+            }
+
+            @Override
+            public Iterator<WebElement> iterator() {
+                return locator.findElements().iterator();
+            }
+
+            @Override
+            public int size() {
+                return locator.findElements().size();
+            }
+
+            @Override
+            public String toString() {
+                return "Elements located by " + by;
+            }
+        };
+    }
+
+    private static final class ByElementLocator implements ElementLocator {
+        private final SearchContext searchContext;
+        private final By by;
+
+        private ByElementLocator(SearchContext searchContext, By by) {
+            this.searchContext = searchContext;
+            this.by = by;
+        }
+
+        @Override
+        public WebElement findElement() {
+            return searchContext.findElement(by);
+        }
+
+        @Override
+        public List<WebElement> findElements() {
+            return searchContext.findElements(by);
+        }
+
+        @Override
+        public String toString() {
+            return "Located by " + by;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.saucedemo.pages;
+
+/**
+ * Инициализатор полей @FindBy страницы, сгенерированный при компиляции
+ * (PageLocatorProcessor). Класс называется &lt;Страница&gt;Locators и лежит
+ * в пакете страницы; поля заполняются прямым присваиванием, без рефлексии
+ *
+ * @param <P> класс страницы
+ */
+public interface PageLocators<P> {
+    String SUFFIX = "Locators";
+
+    void initElements(P page, PageElementBinder binder);
+}
@@ -0,0 +1,140 @@
+package com.saucedemo.pages;
+
+import com.saucedemo.utils.PageMetrics;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Снятие метрик производительности страницы в браузере:
+ * Navigation Timing, paint (first-paint, first-contentful-paint) и long tasks.
+ * Переход внутри одностраничного приложения (без новой навигации) измеряется
+ * от отметки, поставленной перед действием, до готовности страницы.
+ */
+final class PagePerformanceProbe {
+    // Отметка Performance API перед действием, которое открывает следующую страницу
+    private static final String TRANSITION_MARK = "saucedemo:transition";
+
+    private static final String MARK_SCRIPT = """
+            performance.clearMarks(arguments[0]);
+            performance.mark(arguments[0]);
+            """;
+
+    /**
+     * arguments: таймаут ожидания события load (мс), имя отметки перехода, callback.
+     * Long tasks собираются буферизованным PerformanceObserver. Если load уже завершен
+     * (loadEventEnd &gt; 0), метрики возвращаются сразу; иначе - в следующей задаче после load,
+     * когда loadEventEnd уже заполнен
+     */
+    private static final String COLLECT_SCRIPT = """
+            var timeout = arguments[0], markName = arguments[1];
+            var done = arguments[arguments.length - 1];
+            var tasks = [], observer = null, finished = false;
+            try {
+                observer = new PerformanceObserver(function (list) { tasks = tasks.concat(list.getEntries()); });
+                observer.observe({type: 'longtask', buffered: true});
+            } catch (e) {
+                observer = null;
+            }
+            function finish() {
+                if (finished) { return; }
+                finished = true;
+                if (observer) {
+                    tasks = tasks.concat(observer.takeRecords());
+                    observer.disconnect();
+                }
+                var result = {}, since = 0;
+                var marks = performance.getEntriesByName(markName, 'mark');
+                if (marks.length) {
+                    since = marks[marks.length - 1].startTime;
+                    result.transitionMs = performance.now() - since;
+                    performance.clearMarks(markName);
+                } else {
+                    var nav = performance.getEntriesByType('navigation')[0];
+                    if (nav) {
+                        result.ttfbMs = nav.responseStart;
+                        result.domContentLoadedMs = nav.domContentLoadedEventEnd;
+                        result.loadMs = nav.loadEventEnd;
+                        result.transferBytes = nav.transferSize;
+                    }
+                    performance.getEntriesByType('paint').forEach(function (entry) {
+                        if (entry.name === 'first-paint') { result.firstPaintMs = entry.startTime; }
+                        if (entry.name === 'first-contentful-paint') { result.firstContentfulPaintMs = entry.startTime; }
+                    });
+                }
+                if (observer) {
+                    var recent = tasks.filter(function (task) { return task.startTime >= since; });
+                    result.longTaskCount = recent.length;
+                    result.longTaskTotalMs = recent.reduce(function (sum, task) { return sum + task.duration; }, 0);
+                }
+                done(result);
+            }
+            function loaded() {
+                var nav = performance.getEntriesByType('navigation')[0];
+                return nav ? nav.loadEventEnd > 0 : document.readyState === 'complete';
+            }
+            if (loaded()) {
+                finish();
+            } else {
+                window.addEventListener('load', function () { setTimeout(finish, 0); });
+                setTimeout(finish, timeout);
+            }
+            """;
+
+    private PagePerformanceProbe() {
+        // Утилитарный класс
+    }
+
+    /**
+     * Ставит отметку начала перехода (например, перед сабмитом формы логина)
+     */
+    static void markTransition(WebDriver driver) {
+        if (!isAvailable(driver)) {
+            return;
+        }
+        try {
+            ((JavascriptExecutor) driver).executeScript(MARK_SCRIPT, TRANSITION_MARK);
+        } catch (WebDriverException e) {
+            BasePage.logger.debug("Не удалось поставить отметку перехода: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Добавляет отметку начала перехода в пакет действий - без отдельного запроса к драйверу
+     */
+    static PageActionBatch markTransition(PageActionBatch batch) {
+        return PageMetrics.isEnabled() ? batch.mark(TRANSITION_MARK) : batch;
+    }
+
+    /**
+     * Снимает метрики текущей страницы и передает их в PageMetrics под именем страницы.
+     * Ошибки снятия метрик не влияют на функциональный тест
+     */
+    static void capture(WebDriver driver, String pageName, long timeoutMs) {
+        if (!isAvailable(driver)) {
+            return;
+        }
+        try {
+            Object raw = ((JavascriptExecutor) driver).executeAsyncScript(COLLECT_SCRIPT, timeoutMs, TRANSITION_MARK);
+            if (!(raw instanceof Map)) {
+                return;
+            }
+            Map<String, Double> values = new LinkedHashMap<>();
+            ((Map<?, ?>) raw).forEach((name, value) -> {
+                if (value instanceof Number) {
+                    values.put(String.valueOf(name), Math.round(((Number) value).doubleValue() * 10) / 10.0);
+                }
+            });
+            PageMetrics.record(pageName, values);
+        } catch (WebDriverException e) {
+            BasePage.logger.debug("Не удалось снять метрики страницы {}: {}", pageName, e.getMessage());
+        }
+    }
+
+    private static boolean isAvailable(WebDriver driver) {
+        return PageMetrics.isEnabled() && driver instanceof JavascriptExecutor;
+    }
+}
@@ -1,41 +1,93 @@
 package com.saucedemo.pages;
 
+import com.saucedemo.constants.Constants;
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 
+import java.time.Duration;
+
 public class ProductsPage extends BasePage {
     
-    @FindBy(className = "title")
-    private WebElement pageTitle;
+    private static final By INVENTORY_CONTAINER = By.id(Constants.INVENTORY_CONTAINER_ID);
+    private static final By PAGE_TITLE = By.className(Constants.PRODUCTS_TITLE_CLASS);
+    
+    // Поля @FindBy не private: их заполняет сгенерированный ProductsPageLocators.
+    // Страница загружается асинхронно после логина, а неявного ожидания нет:
+    // к полям обращаемся только после waitForPageLoaded
+    @FindBy(className = Constants.PRODUCTS_TITLE_CLASS)
+    WebElement pageTitle;
+    
+    @FindBy(id = Constants.MENU_BUTTON_ID)
+    WebElement menuButton;
     
-    @FindBy(id = "react-burger-menu-btn")
-    private WebElement menuButton;
+    @FindBy(id = Constants.INVENTORY_CONTAINER_ID)
+    WebElement inventoryContainer;
     
-    @FindBy(id = "inventory_container")
-    private WebElement inventoryContainer;
+    // Метрики страницы снимаются один раз, при первой готовности
+    private boolean pageMetricsCaptured;
     
     public ProductsPage(WebDriver driver) {
         super(driver);
     }
     
     public String getPageTitle() {
+        if (!waitForPageLoaded()) {
+            throw new TimeoutException("Страница продуктов не загрузилась за "
+                    + Constants.EXPLICIT_WAIT + " с");
+        }
         String title = pageTitle.getText();
         logger.info("Заголовок страницы: {}", title);
         return title;
     }
     
     public boolean isProductsPageDisplayed() {
-        boolean displayed = inventoryContainer.isDisplayed() && 
-                          pageTitle.isDisplayed() && 
-                          pageTitle.getText().equals("Products");
+        if (isBatchMode()) {
+            return isProductsPageDisplayedBatch();
+        }
+        boolean displayed = waitForPageLoaded() &&
+                          inventoryContainer.isDisplayed() &&
+                          pageTitle.isDisplayed() &&
+                          "Products".equals(pageTitle.getText());
         logger.debug("Страница продуктов отображается: {}", displayed);
         return displayed;
     }
     
     public boolean isMenuDisplayed() {
-        boolean displayed = menuButton.isDisplayed();
+        boolean displayed = waitForPageLoaded() && menuButton.isDisplayed();
         logger.debug("Меню отображается: {}", displayed);
         return displayed;
     }
+    
+    private boolean isProductsPageDisplayedBatch() {
+        if (!waitForPageLoaded()) {
+            logger.debug("Страница продуктов отображается: false");
+            return false;
+        }
+        PageActionBatch.BatchResult result = batch()
+                .readDisplayed("container", INVENTORY_CONTAINER)
+                .readDisplayed("title", PAGE_TITLE)
+                .readText("titleText", PAGE_TITLE)
+                .execute();
+        boolean displayed = result.isDisplayed("container") &&
+                          result.isDisplayed("title") &&
+                          "Products".equals(result.getText("titleText"));
+        logger.debug("Страница продуктов отображается: {}", displayed);
+        return displayed;
+    }
+    
+    /**
+     * После логина страница продуктов загружается асинхронно - ждем список товаров
+     */
+    private boolean waitForPageLoaded() {
+        boolean loaded = waitUntil(INVENTORY_CONTAINER, WaitCondition.VISIBLE,
+                Duration.ofSeconds(Constants.EXPLICIT_WAIT));
+        if (loaded && !pageMetricsCaptured) {
+            pageMetricsCaptured = true;
+            capturePageMetrics(Constants.PRODUCTS_PAGE_NAME);
+        }
+        return loaded;
+    }
 }
@@ -0,0 +1,38 @@
+package com.saucedemo.pages;
+
+import org.openqa.selenium.By;
+
+/**
+ * Преобразование Selenium-локатора в форму, понятную скриптам в браузере.
+ * By.id, By.className, By.name и By.cssSelector сводятся к CSS, By.xpath - к XPath.
+ */
+final class ScriptLocator {
+    static final String CSS = "css";
+    static final String XPATH = "xpath";
+
+    final String type;
+    final String value;
+
+    private ScriptLocator(String type, String value) {
+        this.type = type;
+        this.value = value;
+    }
+
+    /**
+     * Возвращает null, если локатор нельзя выполнить скриптом (например, By.linkText)
+     */
+    static ScriptLocator of(By locator) {
+        if (!(locator instanceof By.Remotable)) {
+            return null;
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        switch (parameters.using()) {
+            case "css selector":
+                return new ScriptLocator(CSS, String.valueOf(parameters.value()));
+            case "xpath":
+                return new ScriptLocator(XPATH, String.valueOf(parameters.value()));
+            default:
+                return null;
+        }
+    }
+}
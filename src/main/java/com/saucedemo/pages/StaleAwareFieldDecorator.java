@@ -0,0 +1,70 @@
+package com.saucedemo.pages;
+
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Декоратор полей @FindBy, прокси которого прозрачно переразрешают
+ * закэшированный элемент, если он устарел (StaleElementReferenceException)
+ */
+class StaleAwareFieldDecorator extends DefaultFieldDecorator {
+
+    StaleAwareFieldDecorator(ElementLocatorFactory factory) {
+        super(factory);
+    }
+
+    @Override
+    protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+        return (WebElement) Proxy.newProxyInstance(loader,
+                new Class<?>[]{WebElement.class, WrapsElement.class, Locatable.class},
+                new StaleAwareElementHandler(locator));
+    }
+
+    static final class StaleAwareElementHandler implements InvocationHandler {
+        private final ElementLocator locator;
+
+        StaleAwareElementHandler(ElementLocator locator) {
+            this.locator = locator;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("toString".equals(method.getName())) {
+                return "Proxy element for: " + locator;
+            }
+
+            WebElement element = locator.findElement();
+            if ("getWrappedElement".equals(method.getName())) {
+                return element;
+            }
+
+            try {
+                return method.invoke(element, args);
+            } catch (InvocationTargetException e) {
+                if (!(e.getCause() instanceof StaleElementReferenceException)
+                        || !(locator instanceof CachingElementLocator)) {
+                    throw e.getCause();
+                }
+            }
+
+            // Элемент из кэша устарел - находим заново и повторяем вызов один раз
+            ElementCacheStats.recordStaleRefresh();
+            ((CachingElementLocator) locator).invalidate();
+            try {
+                return method.invoke(locator.findElement(), args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.saucedemo.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Генерация локаторов страниц из аннотаций @FindBy при компиляции.
+ * Для каждого класса с полями @FindBy создается &lt;Класс&gt;Locators (PageLocators):
+ * константы By и метод, заполняющий поля прямым присваиванием. Локаторы проверяются
+ * при сборке: одна стратегия поиска, непустое значение, корректный XPath, CSS со
+ * сбалансированными скобками и кавычками, className без пробелов.
+ * Подключается в pom.xml (annotationProcessors); сам процессор компилируется
+ * отдельным шагом до основного кода
+ */
+@SupportedAnnotationTypes({
+        PageLocatorProcessor.FIND_BY, PageLocatorProcessor.FIND_BYS, PageLocatorProcessor.FIND_ALL})
+public class PageLocatorProcessor extends AbstractProcessor {
+    static final String FIND_BY = "org.openqa.selenium.support.FindBy";
+    static final String FIND_BYS = "org.openqa.selenium.support.FindBys";
+    static final String FIND_ALL = "org.openqa.selenium.support.FindAll";
+    private static final String WEB_ELEMENT = "org.openqa.selenium.WebElement";
+    private static final String LIST = "java.util.List";
+    private static final String SUFFIX = "Locators";
+    // Полные имена: сгенерированный класс не должен конфликтовать с импортами страницы
+    private static final String PAGE_LOCATORS = "com.saucedemo.pages.PageLocators";
+    private static final String BINDER = "com.saucedemo.pages.PageElementBinder";
+
+    // Атрибут @FindBy -> фабричный метод By
+    private static final Map<String, String> STRATEGIES = new LinkedHashMap<>();
+    // Значение How -> атрибут @FindBy
+    private static final Map<String, String> HOW = new LinkedHashMap<>();
+
+    static {
+        STRATEGIES.put("id", "By.id");
+        STRATEGIES.put("name", "By.name");
+        STRATEGIES.put("className", "By.className");
+        STRATEGIES.put("css", "By.cssSelector");
+        STRATEGIES.put("tagName", "By.tagName");
+        STRATEGIES.put("linkText", "By.linkText");
+        STRATEGIES.put("partialLinkText", "By.partialLinkText");
+        STRATEGIES.put("xpath", "By.xpath");
+        STRATEGIES.put("idOrName", "new ByIdOrName");
+
+        HOW.put("ID", "id");
+        HOW.put("NAME", "name");
+        HOW.put("CLASS_NAME", "className");
+        HOW.put("CSS", "css");
+        HOW.put("TAG_NAME", "tagName");
+        HOW.put("LINK_TEXT", "linkText");
+        HOW.put("PARTIAL_LINK_TEXT", "partialLinkText");
+        HOW.put("XPATH", "xpath");
+        HOW.put("ID_OR_NAME", "idOrName");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        // Страницы с @FindBys/@FindAll тоже проверяются: генератор их не поддерживает
+        Set<TypeElement> pages = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element field : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (field.getKind() == ElementKind.FIELD) {
+                    pages.add((TypeElement) field.getEnclosingElement());
+                }
+            }
+        }
+        for (TypeElement page : pages) {
+            generate(page);
+        }
+        return false;
+    }
+
+    private void generate(TypeElement page) {
+        Messager messager = processingEnv.getMessager();
+        if (page.getNestingKind() != NestingKind.TOP_LEVEL) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "Локаторы генерируются только для классов верхнего уровня", page);
+            return;
+        }
+
+        List<Locator> locators = new ArrayList<>();
+        boolean valid = true;
+        for (VariableElement field : ElementFilter.fieldsIn(page.getEnclosedElements())) {
+            AnnotationMirror annotation = findAnnotation(field, FIND_BY);
+            if (annotation == null) {
+                if (findAnnotation(field, FIND_BYS) != null || findAnnotation(field, FIND_ALL) != null) {
+                    messager.printMessage(Diagnostic.Kind.ERROR,
+                            "@FindBys/@FindAll не поддерживаются генератором локаторов", field);
+                    valid = false;
+                } else if (isWebElement(field.asType())) {
+                    messager.printMessage(Diagnostic.Kind.WARNING,
+                            "Поле WebElement без @FindBy не будет заполнено сгенерированными локаторами", field);
+                }
+                continue;
+            }
+            Locator locator = toLocator(field, annotation);
+            if (locator == null) {
+                valid = false;
+            } else {
+                locators.add(locator);
+            }
+        }
+        if (!valid) {
+            return;
+        }
+
+        try {
+            write(page, locators);
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Не удалось записать локаторы: " + e.getMessage(), page);
+        }
+    }
+
+    /**
+     * Проверяет поле и его @FindBy; null и ошибка компиляции, если локатор некорректен
+     */
+    private Locator toLocator(VariableElement field, AnnotationMirror annotation) {
+        Messager messager = processingEnv.getMessager();
+        Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL)
+                || modifiers.contains(Modifier.STATIC)) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "Поле @FindBy должно быть не private, не final и не static", field);
+            return null;
+        }
+        boolean list = isWebElementList(field.asType());
+        if (!list && !isWebElement(field.asType())) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "Поле @FindBy должно иметь тип WebElement или List<WebElement>", field);
+            return null;
+        }
+
+        Map<String, String> values = new LinkedHashMap<>();
+        String how = null;
+        String using = "";
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : processingEnv.getElementUtils().getElementValuesWithDefaults(annotation).entrySet()) {
+            String name = entry.getKey().getSimpleName().toString();
+            Object value = entry.getValue().getValue();
+            if ("how".equals(name)) {
+                how = value.toString();
+            } else if ("using".equals(name)) {
+                using = value.toString();
+            } else if (STRATEGIES.containsKey(name) && !value.toString().isEmpty()) {
+                values.put(name, value.toString());
+            }
+        }
+        if (how != null && !"UNSET".equals(how)) {
+            values.put(HOW.get(how), using);
+        }
+
+        if (values.size() != 1) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "@FindBy должен задавать ровно одну стратегию поиска, задано: " + values.keySet(), field);
+            return null;
+        }
+        Map.Entry<String, String> strategy = values.entrySet().iterator().next();
+        String error = validate(strategy.getKey(), strategy.getValue());
+        if (error != null) {
+            messager.printMessage(Diagnostic.Kind.ERROR,
+                    "Некорректный локатор " + strategy.getKey() + " = \"" + strategy.getValue() + "\": " + error,
+                    field);
+            return null;
+        }
+        return new Locator(field.getSimpleName().toString(), STRATEGIES.get(strategy.getKey()),
+                strategy.getValue(), list);
+    }
+
+    /**
+     * Описание ошибки или null, если локатор корректен
+     */
+    private static String validate(String strategy, String value) {
+        if (value.isBlank()) {
+            return "пустое значение";
+        }
+        switch (strategy) {
+            case "id":
+            case "name":
+            case "tagName":
+            case "idOrName":
+                return value.chars().anyMatch(Character::isWhitespace) ? "значение содержит пробелы" : null;
+            case "className":
+                return value.trim().contains(" ")
+                        ? "составные имена классов не поддерживаются, используйте css" : null;
+            case "xpath":
+                try {
+                    XPathFactory.newInstance().newXPath().compile(value);
+                    return null;
+                } catch (XPathExpressionException e) {
+                    return "ошибка XPath: " + e.getMessage();
+                }
+            case "css":
+                return validateCss(value);
+            default:
+                return null;
+        }
+    }
+
+    private static String validateCss(String selector) {
+        List<Character> open = new ArrayList<>();
+        char quote = 0;
+        for (int i = 0; i < selector.length(); i++) {
+            char c = selector.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '[' || c == '(') {
+                open.add(c);
+            } else if (c == ']' || c == ')') {
+                char expected = c == ']' ? '[' : '(';
+                if (open.isEmpty() || open.remove(open.size() - 1) != expected) {
+                    return "лишняя скобка '" + c + "'";
+                }
+            }
+        }
+        if (quote != 0) {
+            return "незакрытая кавычка";
+        }
+        if (!open.isEmpty()) {
+            return "незакрытая скобка '" + open.get(open.size() - 1) + "'";
+        }
+        String trimmed = selector.trim();
+        char last = trimmed.charAt(trimmed.length() - 1);
+        if (last == '>' || last == '+' || last == '~' || last == ',') {
+            return "селектор заканчивается комбинатором '" + last + "'";
+        }
+        return null;
+    }
+
+    private void write(TypeElement page, List<Locator> locators) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(page).getQualifiedName().toString();
+        String pageName = page.getSimpleName().toString();
+        String className = pageName + SUFFIX;
+        TypeElement parentPage = findParentPage(page);
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(
+                packageName.isEmpty() ? className : packageName + "." + className, page);
+        try (Writer out = file.openWriter()) {
+            if (!packageName.isEmpty()) {
+                out.write("package " + packageName + ";\n\n");
+            }
+            out.write("import org.openqa.selenium.By;\n");
+            out.write("import org.openqa.selenium.support.pagefactory.ByIdOrName;\n\n");
+            out.write("import javax.annotation.processing.Generated;\n\n");
+            out.write("/**\n * Локаторы " + pageName + ", сгенерированные из @FindBy при компиляции\n */\n");
+            out.write("@Generated(\"" + PageLocatorProcessor.class.getName() + "\")\n");
+            out.write("public final class " + className + " implements " + PAGE_LOCATORS + "<" + pageName + "> {\n");
+            for (Locator locator : locators) {
+                out.write("    public static final By " + locator.constantName() + " = "
+                        + locator.factory() + "(\"" + escape(locator.value()) + "\");\n");
+            }
+            out.write("\n    @Override\n");
+            out.write("    public void initElements(" + pageName + " page, " + BINDER + " binder) {\n");
+            if (parentPage != null) {
+                out.write("        new " + parentPage.getQualifiedName() + SUFFIX + "().initElements(page, binder);\n");
+            }
+            for (Locator locator : locators) {
+                out.write("        page." + locator.field() + " = binder."
+                        + (locator.list() ? "elements" : "element") + "(" + locator.constantName() + ");\n");
+            }
+            out.write("    }\n}\n");
+        }
+    }
+
+    /**
+     * Ближайший суперкласс с полями @FindBy: его локаторы заполняются первыми
+     */
+    private TypeElement findParentPage(TypeElement page) {
+        TypeMirror superclass = page.getSuperclass();
+        while (superclass.getKind() == TypeKind.DECLARED) {
+            TypeElement parent = (TypeElement) ((DeclaredType) superclass).asElement();
+            for (VariableElement field : ElementFilter.fieldsIn(parent.getEnclosedElements())) {
+                if (findAnnotation(field, FIND_BY) != null) {
+                    return parent;
+                }
+            }
+            superclass = parent.getSuperclass();
+        }
+        return null;
+    }
+
+    private static AnnotationMirror findAnnotation(Element element, String type) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(type)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    private boolean isWebElement(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED
+                && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(WEB_ELEMENT);
+    }
+
+    private boolean isWebElementList(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        DeclaredType declared = (DeclaredType) type;
+        return ((TypeElement) declared.asElement()).getQualifiedName().contentEquals(LIST)
+                && declared.getTypeArguments().size() == 1
+                && isWebElement(declared.getTypeArguments().get(0));
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private record Locator(String field, String factory, String value, boolean list) {
+        /**
+         * usernameInput -> USERNAME_INPUT
+         */
+        String constantName() {
+            return field.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.saucedemo.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Учет процессов браузера каждой сессии: chromedriver (дочерний процесс JVM, находится
+ * по порту сервиса) и все его потомки (chrome, renderer, gpu).
+ * Снимает RSS, CPU и число открытых дескрипторов из /proc и добивает процессы,
+ * оставшиеся после driver.quit(): при закрытии сессии, при завершении JVM и при старте
+ * (осиротевшие браузеры упавших ранее JVM находятся по аргументу --saucedemo-owner=&lt;pid&gt;).
+ * Работает только там, где есть /proc (Linux); на остальных ОС учет выключен.
+ * Хук завершения JVM также останавливает Log4j - собственный хук Log4j отключен
+ * в log4j2.component.properties, чтобы сообщения уборки не терялись
+ */
+public final class BrowserProcessMonitor {
+    private static final Logger logger = LogManager.getLogger(BrowserProcessMonitor.class);
+    private static final String OWNER_ARGUMENT = "--saucedemo-owner=";
+    private static final Path PROC = Paths.get("/proc");
+    private static final boolean SUPPORTED = Files.isDirectory(PROC);
+
+    private static final Map<WebDriver, Session> sessions = new ConcurrentHashMap<>();
+
+    private BrowserProcessMonitor() {
+        // Утилитарный класс
+    }
+
+    // Хук завершения JVM - один раз при первом обращении
+    private static final class ShutdownHook {
+        private static final boolean INSTALLED = install();
+
+        private static boolean install() {
+            Runtime.getRuntime().addShutdownHook(new Thread(BrowserProcessMonitor::shutdown, "browser-reaper"));
+            return true;
+        }
+    }
+
+    // Уборка сирот - один раз при первом обращении
+    private static final class Reaper {
+        private static final boolean INSTALLED = install();
+
+        private static boolean install() {
+            reapOrphans();
+            return ShutdownHook.INSTALLED;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return SUPPORTED && ConfigReader.getInstance().isProcessMonitorEnabled();
+    }
+
+    /**
+     * Регистрирует хук завершения JVM, даже если учет процессов выключен: без него
+     * остановить Log4j при выходе некому
+     */
+    public static boolean installShutdownHook() {
+        return ShutdownHook.INSTALLED;
+    }
+
+    /**
+     * Аргумент браузера, помечающий его как запущенный этой JVM
+     */
+    public static String ownerArgument() {
+        return OWNER_ARGUMENT + ProcessHandle.current().pid();
+    }
+
+    /**
+     * Связывает сессию с процессом chromedriver, слушающим port
+     */
+    public static void register(WebDriver driver, int port) {
+        if (!isEnabled() || !Reaper.INSTALLED) {
+            return;
+        }
+        String portArgument = "--port=" + port;
+        Optional<ProcessHandle> chromedriver = ProcessHandle.current().children()
+                .filter(process -> arguments(process).contains(portArgument))
+                .findFirst();
+        if (chromedriver.isEmpty()) {
+            logger.warn("Процесс chromedriver с {} не найден - ресурсы сессии не отслеживаются", portArgument);
+            return;
+        }
+        sessions.put(driver, new Session(chromedriver.get()));
+        logger.debug("Сессия браузера: chromedriver pid {}", chromedriver.get().pid());
+    }
+
+    /**
+     * Текущие ресурсы дерева процессов сессии. CPU - с предыдущего замера этой сессии
+     * (для новой сессии включает запуск браузера)
+     */
+    public static Optional<Map<String, Object>> sample(WebDriver driver) {
+        Session session = sessions.get(driver);
+        if (session == null) {
+            return Optional.empty();
+        }
+        List<ProcessHandle> tree = session.tree();
+        long rssKb = 0;
+        long openFiles = 0;
+        Map<Long, Long> cpuByPid = new HashMap<>();
+        for (ProcessHandle process : tree) {
+            rssKb += readRssKb(process.pid());
+            openFiles += countOpenFiles(process.pid());
+            process.info().totalCpuDuration().ifPresent(cpu -> cpuByPid.put(process.pid(), cpu.toMillis()));
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("processes", tree.size());
+        stats.put("rssMb", Math.round(rssKb / 102.4) / 10.0);
+        stats.put("cpuMs", session.cpuDelta(cpuByPid));
+        stats.put("openFiles", openFiles);
+        return Optional.of(stats);
+    }
+
+    /**
+     * Вызывается перед driver.quit(): запоминает дерево процессов сессии (после смерти
+     * chromedriver его потомков уже не найти) и возвращает действие, которое после quit
+     * ждет их завершения и принудительно завершает оставшиеся
+     */
+    public static Runnable detach(WebDriver driver) {
+        Session session = sessions.remove(driver);
+        if (session == null) {
+            return () -> { };
+        }
+        List<ProcessHandle> tree = session.tree();
+        return () -> {
+            Duration timeout = Duration.ofMillis(ConfigReader.getInstance().getProcessReapTimeoutMs());
+            int killed = terminate(tree, timeout);
+            if (killed > 0) {
+                logger.warn("После закрытия сессии принудительно завершено процессов браузера: {}", killed);
+            }
+        };
+    }
+
+    /**
+     * Хук завершения JVM: уборка браузеров (если учет включен), затем остановка Log4j
+     * с записью оставшихся асинхронных событий
+     */
+    private static void shutdown() {
+        try {
+            if (isEnabled()) {
+                reapAll();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Уборка процессов браузера при завершении JVM не удалась: {}", e.getMessage());
+        } finally {
+            LogManager.shutdown();
+        }
+    }
+
+    /**
+     * Все браузеры этой JVM
+     */
+    private static void reapAll() {
+        List<ProcessHandle> remaining = new ArrayList<>();
+        sessions.values().forEach(session -> remaining.addAll(session.tree()));
+        ProcessHandle.current().descendants().filter(BrowserProcessMonitor::isBrowserProcess)
+                .filter(process -> !remaining.contains(process))
+                .forEach(remaining::add);
+        int killed = terminate(remaining, Duration.ofSeconds(2));
+        if (killed > 0) {
+            logger.warn("При завершении JVM принудительно завершено процессов браузера: {}", killed);
+        }
+    }
+
+    /**
+     * Браузеры, помеченные владельцем, которого уже нет (JVM упала или была убита)
+     */
+    private static void reapOrphans() {
+        List<ProcessHandle> orphans = new ArrayList<>();
+        ProcessHandle.allProcesses().forEach(process -> {
+            String arguments = arguments(process);
+            int index = arguments.indexOf(OWNER_ARGUMENT);
+            if (index < 0) {
+                return;
+            }
+            String owner = arguments.substring(index + OWNER_ARGUMENT.length()).split("\\s", 2)[0];
+            try {
+                if (ProcessHandle.of(Long.parseLong(owner)).map(ProcessHandle::isAlive).orElse(false)) {
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                return;
+            }
+            orphans.add(process);
+            process.parent().filter(BrowserProcessMonitor::isBrowserProcess).ifPresent(orphans::add);
+            process.descendants().forEach(orphans::add);
+        });
+        int killed = terminate(orphans, Duration.ZERO);
+        if (killed > 0) {
+            logger.warn("Завершено осиротевших процессов браузера прошлых прогонов: {}", killed);
+        }
+    }
+
+    /**
+     * Ждет завершения процессов до timeout, затем завершает оставшиеся.
+     * Возвращает число принудительно завершенных
+     */
+    private static int terminate(List<ProcessHandle> processes, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (processes.stream().anyMatch(ProcessHandle::isAlive) && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        int killed = 0;
+        for (ProcessHandle process : processes) {
+            if (process.isAlive() && process.destroyForcibly()) {
+                killed++;
+            }
+        }
+        return killed;
+    }
+
+    private static boolean isBrowserProcess(ProcessHandle process) {
+        String command = process.info().command().orElse("").toLowerCase();
+        return command.contains("chrome") || command.contains("chromium");
+    }
+
+    private static String arguments(ProcessHandle process) {
+        return process.info().arguments().map(arguments -> String.join(" ", arguments)).orElse("");
+    }
+
+    /**
+     * VmRSS из /proc/&lt;pid&gt;/status; 0 вне Linux или если процесс уже завершился
+     */
+    private static long readRssKb(long pid) {
+        try (Stream<String> lines = Files.lines(PROC.resolve(Long.toString(pid)).resolve("status"))) {
+            return lines.filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> line.replaceAll("\\D", ""))
+                    .mapToLong(Long::parseLong)
+                    .findFirst()
+                    .orElse(0);
+        } catch (IOException | RuntimeException e) {
+            return 0;
+        }
+    }
+
+    private static long countOpenFiles(long pid) {
+        try (Stream<Path> files = Files.list(PROC.resolve(Long.toString(pid)).resolve("fd"))) {
+            return files.count();
+        } catch (IOException | RuntimeException e) {
+            return 0;
+        }
+    }
+
+    private static final class Session {
+        private final ProcessHandle chromedriver;
+        // Накопленное CPU каждого процесса на момент предыдущего замера
+        private Map<Long, Long> lastCpuByPid = new HashMap<>();
+
+        private Session(ProcessHandle chromedriver) {
+            this.chromedriver = chromedriver;
+        }
+
+        private List<ProcessHandle> tree() {
+            List<ProcessHandle> tree = new ArrayList<>();
+            if (chromedriver.isAlive()) {
+                tree.add(chromedriver);
+            }
+            chromedriver.descendants().forEach(tree::add);
+            return tree;
+        }
+
+        /**
+         * CPU дерева с предыдущего замера: сумма приростов по каждому pid. Завершившиеся
+         * процессы не уменьшают результат, новые учитываются целиком
+         */
+        private synchronized long cpuDelta(Map<Long, Long> cpuByPid) {
+            long delta = 0;
+            for (Map.Entry<Long, Long> entry : cpuByPid.entrySet()) {
+                delta += Math.max(0, entry.getValue() - lastCpuByPid.getOrDefault(entry.getKey(), 0L));
+            }
+            lastCpuByPid = cpuByPid;
+            return delta;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.saucedemo.utils;
+
+import com.saucedemo.pages.BasePage;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+
+/**
+ * Слушатель, замеряющий длительность каждой команды WebDriver
+ * и передающий ее в CommandMetrics
+ */
+class CommandLatencyListener implements WebDriverListener {
+    private static final StackWalker stackWalker =
+            StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    // Вложенные вызовы (например, manage().timeouts()) образуют стек
+    private final ThreadLocal<Deque<Long>> startTimes = ThreadLocal.withInitial(ArrayDeque::new);
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        startTimes.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        complete(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        complete(method);
+    }
+
+    private void complete(Method method) {
+        Long start = startTimes.get().poll();
+        if (start == null) {
+            return;
+        }
+        long micros = (System.nanoTime() - start) / 1000;
+        String command = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        CommandMetrics.record(command, findPageMethod(), micros);
+    }
+
+    /**
+     * Ближайший по стеку метод конкретного page object (наследника BasePage)
+     */
+    private static String findPageMethod() {
+        Optional<StackWalker.StackFrame> frame = stackWalker.walk(frames -> frames
+                .filter(f -> BasePage.class.isAssignableFrom(f.getDeclaringClass())
+                        && f.getDeclaringClass() != BasePage.class)
+                .findFirst());
+        return frame.map(f -> f.getDeclaringClass().getSimpleName() + "." + f.getMethodName())
+                .orElse(null);
+    }
+}
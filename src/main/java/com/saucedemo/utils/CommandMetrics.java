@@ -0,0 +1,179 @@
+package com.saucedemo.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Сбор задержек команд WebDriver.
+ * Задержки группируются по типу команды (например, WebElement.click) и по методу
+ * page object, из которого команда была вызвана, и накапливаются в HDR гистограммах
+ * для текущего теста (по потоку) и для всего прогона.
+ */
+public final class CommandMetrics {
+    private static final Logger logger = LogManager.getLogger(CommandMetrics.class);
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    // Метрики текущего теста; null, если поток не выполняет тест
+    private static final ThreadLocal<TestMetrics> currentTest = new ThreadLocal<>();
+    private static final Map<String, ConcurrentHistogram> runCommands = new ConcurrentHashMap<>();
+    private static final Map<String, ConcurrentHistogram> runPageMethods = new ConcurrentHashMap<>();
+
+    private CommandMetrics() {
+        // Утилитарный класс
+    }
+
+    /**
+     * Начинает сбор метрик теста в текущем потоке
+     */
+    public static void startTest(String testName) {
+        currentTest.set(new TestMetrics(testName));
+    }
+
+    /**
+     * Завершает сбор метрик теста в текущем потоке и возвращает их
+     */
+    public static TestMetrics finishTest() {
+        TestMetrics metrics = currentTest.get();
+        currentTest.remove();
+        return metrics;
+    }
+
+    /**
+     * Регистрирует выполненную команду
+     *
+     * @param command    тип команды, например WebElement.click
+     * @param pageMethod метод page object, например LoginPage.login; null вне page objects
+     */
+    static void record(String command, String pageMethod, long micros) {
+        long value = Math.max(1, micros);
+        runCommands.computeIfAbsent(command, key -> new ConcurrentHistogram(3)).recordValue(value);
+        if (pageMethod != null) {
+            runPageMethods.computeIfAbsent(pageMethod, key -> new ConcurrentHistogram(3)).recordValue(value);
+        }
+
+        TestMetrics test = currentTest.get();
+        if (test != null) {
+            test.record(command, pageMethod, value);
+        }
+    }
+
+    /**
+     * Регистрирует явное ожидание page object как команду wait.&lt;условие&gt;
+     * (command.metrics.enabled): время ожиданий попадает в отчеты рядом с командами WebDriver
+     */
+    public static void recordWait(String condition, long micros) {
+        if (ConfigReader.getInstance().isCommandMetricsEnabled()) {
+            record("wait." + condition, null, micros);
+        }
+    }
+
+    /**
+     * Сводный отчет по всему прогону в JSON
+     */
+    public static void writeRunReport(Path file) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("commands", summarize(runCommands));
+        report.put("pageMethods", summarize(runPageMethods));
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            mapper.writeValue(file.toFile(), report);
+            logger.info("Отчет о задержках команд WebDriver сохранен: {}", file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось сохранить отчет о задержках", e);
+        }
+    }
+
+    private static Map<String, Object> summarize(Map<String, ? extends AbstractHistogram> histograms) {
+        Map<String, Object> result = new TreeMap<>();
+        histograms.forEach((name, histogram) -> result.put(name, describe(histogram)));
+        return result;
+    }
+
+    /**
+     * Значения в миллисекундах: count, total, mean, p50, p95, p99, max
+     */
+    static Map<String, Object> describe(AbstractHistogram histogram) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("count", histogram.getTotalCount());
+        stats.put("totalMs", toMillis(histogram.getMean() * histogram.getTotalCount()));
+        stats.put("meanMs", toMillis(histogram.getMean()));
+        stats.put("p50Ms", toMillis(histogram.getValueAtPercentile(50)));
+        stats.put("p95Ms", toMillis(histogram.getValueAtPercentile(95)));
+        stats.put("p99Ms", toMillis(histogram.getValueAtPercentile(99)));
+        stats.put("maxMs", toMillis(histogram.getMaxValue()));
+        return stats;
+    }
+
+    private static double toMillis(double micros) {
+        return Math.round(micros) / 1000.0;
+    }
+
+    /**
+     * Метрики одного теста. Заполняются только потоком теста
+     */
+    public static final class TestMetrics {
+        private final String testName;
+        private final long startNanos = System.nanoTime();
+        private final Map<String, Histogram> commands = new TreeMap<>();
+        private final Map<String, Histogram> pageMethods = new TreeMap<>();
+        private long totalCommandMicros;
+
+        private TestMetrics(String testName) {
+            this.testName = testName;
+        }
+
+        private void record(String command, String pageMethod, long micros) {
+            commands.computeIfAbsent(command, key -> new Histogram(3)).recordValue(micros);
+            if (pageMethod != null) {
+                pageMethods.computeIfAbsent(pageMethod, key -> new Histogram(3)).recordValue(micros);
+            }
+            totalCommandMicros += micros;
+        }
+
+        public String getTestName() {
+            return testName;
+        }
+
+        /**
+         * Время с начала теста
+         */
+        public long getElapsedMillis() {
+            return (System.nanoTime() - startNanos) / 1_000_000;
+        }
+
+        /**
+         * Суммарное время всех команд WebDriver теста
+         */
+        public long getTotalCommandMillis() {
+            return totalCommandMicros / 1000;
+        }
+
+        public String toJson() {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("test", testName);
+            report.put("elapsedMs", getElapsedMillis());
+            report.put("totalCommandMs", getTotalCommandMillis());
+            report.put("commands", summarize(commands));
+            report.put("pageMethods", summarize(pageMethods));
+            try {
+                return mapper.writeValueAsString(report);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Не удалось сериализовать метрики теста", e);
+            }
+        }
+    }
+}
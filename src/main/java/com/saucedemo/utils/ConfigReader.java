@@ -5,133 +5,591 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 /**
- * Класс для чтения конфигурационных параметров из файла config.properties
- * Использует паттерн Singleton для гарантии единственного экземпляра
+ * Класс для чтения конфигурационных параметров.
+ * Конфигурация загружается один раз в неизменяемый снимок из слоев
+ * (каждый следующий переопределяет предыдущий):
+ * <ol>
+ *     <li>config.properties из classpath - объявляет все параметры</li>
+ *     <li>профиль config-&lt;profile&gt;.properties (-Dconfig.profile=ci, local-stub, remote, perf, load)</li>
+ *     <li>внешний файл (-Dconfig.file=/path/to/file.properties)</li>
+ *     <li>переменные окружения SAUCEDEMO_&lt;KEY&gt; (base.url -&gt; SAUCEDEMO_BASE_URL)</li>
+ *     <li>системные свойства -D&lt;key&gt;</li>
+ * </ol>
+ * Чтение снимка не использует блокировок и не пишет в лог.
+ * Все ошибочные значения сообщаются вместе при загрузке.
  */
 public class ConfigReader {
     private static final Logger logger = LogManager.getLogger(ConfigReader.class);
-    private static final Properties properties = new Properties();
-    private static ConfigReader instance;
-    
-    // Приватный конструктор для Singleton
-    private ConfigReader() {
-        loadProperties();
+
+    private static final String PROFILE_KEY = "config.profile";
+    private static final String FILE_KEY = "config.file";
+    private static final String ENV_PREFIX = "SAUCEDEMO_";
+
+    // Типы параметров, проверяемые при загрузке
+    private static final Set<String> INT_KEYS = Set.of("implicit.wait", "page.load.timeout", "explicit.wait",
+            "script.timeout", "stub.port", "stub.latency.ms", "stub.glitch.delay.ms", "screenshot.max.width",
+            "artifacts.threads", "artifacts.queue.size", "load.users", "load.ramp.up.seconds",
+            "load.duration.seconds", "test.history.runs", "shard.index", "shard.total",
+            "page.metrics.tolerance.percent", "page.metrics.tolerance.ms", "attachments.gzip.threshold.kb",
+            "attachments.max.size.mb", "attachments.max.age.days", "session.max.uses", "session.prelaunch",
+            "process.reap.timeout.ms");
+    private static final Set<String> LONG_KEYS = Set.of("performance.threshold.ms");
+    private static final Set<String> FLOAT_KEYS = Set.of("screenshot.jpeg.quality", "load.target.rate");
+    private static final Set<String> BOOLEAN_KEYS = Set.of("screenshot.on.failure", "element.cache.enabled",
+            "batch.mode", "command.metrics.enabled", "driver.offline", "driver.cache.refresh",
+            "browser.lightweight", "page.metrics.enabled", "page.metrics.baseline.update",
+            "session.recycle", "process.monitor.enabled", "load.enabled");
+    private static final Map<String, Set<String>> ALLOWED_VALUES = Map.of(
+            "performance.budget.mode", Set.of("flag", "fail"),
+            "page.locators", Set.of("generated", "pagefactory"));
+    private static final List<String> REQUIRED_KEYS = List.of("base.url", "standard.user", "standard.password",
+            "locked.user", "performance.user");
+
+    private final String profile;
+    private final Map<String, String> properties;
+    private final Map<String, Object> typedProperties;
+
+    /**
+     * Конфигурация из уже объединенных слоев; вне тестов используется getInstance()
+     */
+    ConfigReader(String profile, Map<String, String> merged) {
+        this.profile = profile;
+        this.properties = Collections.unmodifiableMap(new LinkedHashMap<>(merged));
+        this.typedProperties = Collections.unmodifiableMap(parseTyped(merged));
+        logger.info("Конфигурационные параметры успешно загружены (профиль: {})",
+                profile == null ? "по умолчанию" : profile);
+    }
+
+    // Ленивая потокобезопасная инициализация без synchronized на каждом вызове
+    private static final class Holder {
+        private static final ConfigReader INSTANCE = load();
+    }
+
+    private static ConfigReader load() {
+        String profile = lookupOverride(PROFILE_KEY);
+        return new ConfigReader(profile,
+                loadLayers(profile, lookupOverride(FILE_KEY), System.getenv(), System.getProperties()));
     }
-    
+
     /**
      * Метод для получения экземпляра ConfigReader (Singleton)
      */
-    public static synchronized ConfigReader getInstance() {
-        if (instance == null) {
-            instance = new ConfigReader();
+    public static ConfigReader getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Последовательная загрузка слоев конфигурации
+     *
+     * @param externalFile внешний файл (config.file); null - без него
+     * @param environment  переменные окружения
+     * @param system       системные свойства
+     */
+    static Map<String, String> loadLayers(String profile, String externalFile, Map<String, String> environment,
+                                          Properties system) {
+        Map<String, String> merged = new LinkedHashMap<>(readClasspath("config.properties"));
+        if (profile != null) {
+            merged.putAll(readClasspath("config-" + profile + ".properties"));
+        }
+
+        if (externalFile != null) {
+            merged.putAll(readFile(Paths.get(externalFile)));
+        }
+
+        // Переменные окружения и -D переопределяют только объявленные параметры
+        for (String key : new ArrayList<>(merged.keySet())) {
+            String envValue = environment.get(toEnvName(key));
+            if (envValue != null) {
+                merged.put(key, envValue);
+            }
+            String systemValue = system.getProperty(key);
+            if (systemValue != null) {
+                merged.put(key, systemValue);
+            }
         }
-        return instance;
+        return merged;
     }
-    
+
     /**
-     * Загрузка свойств из файла config.properties
+     * Проверка типов и обязательных значений; все ошибки собираются в одно исключение.
+     * Типизированные параметры обязательны: геттеры не имеют значений по умолчанию
      */
-    private void loadProperties() {
-        try (InputStream input = getClass().getClassLoader()
-                .getResourceAsStream("config.properties")) {
-            
+    private static Map<String, Object> parseTyped(Map<String, String> values) {
+        List<String> errors = new ArrayList<>();
+        Map<String, Object> typed = new HashMap<>();
+
+        for (String key : REQUIRED_KEYS) {
+            String value = values.get(key);
+            if (value == null || value.isBlank()) {
+                errors.add(key + ": обязательный параметр не задан");
+            }
+        }
+        for (Set<String> keys : List.of(INT_KEYS, LONG_KEYS, FLOAT_KEYS, BOOLEAN_KEYS, ALLOWED_VALUES.keySet())) {
+            keys.stream()
+                    .filter(key -> !values.containsKey(key))
+                    .sorted()
+                    .forEach(key -> errors.add(key + ": параметр не объявлен"));
+        }
+
+        values.forEach((key, rawValue) -> {
+            String value = rawValue.trim();
+            try {
+                if (INT_KEYS.contains(key)) {
+                    typed.put(key, Integer.parseInt(value));
+                } else if (LONG_KEYS.contains(key)) {
+                    typed.put(key, Long.parseLong(value));
+                } else if (FLOAT_KEYS.contains(key)) {
+                    typed.put(key, Float.parseFloat(value));
+                } else if (BOOLEAN_KEYS.contains(key)) {
+                    if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                        errors.add(key + ": ожидается true или false, получено '" + rawValue + "'");
+                    }
+                    typed.put(key, Boolean.parseBoolean(value));
+                }
+            } catch (NumberFormatException e) {
+                errors.add(key + ": неверный формат числа '" + rawValue + "'");
+            }
+
+            Set<String> allowed = ALLOWED_VALUES.get(key);
+            if (allowed != null && !allowed.contains(value.toLowerCase())) {
+                errors.add(key + ": допустимые значения " + allowed + ", получено '" + rawValue + "'");
+            }
+        });
+
+        if (!errors.isEmpty()) {
+            errors.forEach(error -> logger.error("Ошибка конфигурации - {}", error));
+            throw new RuntimeException("Неверная конфигурация:\n  " + String.join("\n  ", errors));
+        }
+        return typed;
+    }
+
+    private static Map<String, String> readClasspath(String resource) {
+        try (InputStream input = ConfigReader.class.getClassLoader().getResourceAsStream(resource)) {
             if (input == null) {
-                logger.error("Файл config.properties не найден в classpath");
-                throw new RuntimeException("Файл config.properties не найден");
+                logger.error("Файл {} не найден в classpath", resource);
+                throw new RuntimeException("Файл " + resource + " не найден");
             }
-            
-            properties.load(input);
-            logger.info("Конфигурационные параметры успешно загружены");
-            
+            return toMap(input);
         } catch (IOException e) {
-            logger.error("Ошибка при загрузке файла config.properties: {}", e.getMessage());
+            logger.error("Ошибка при загрузке файла {}: {}", resource, e.getMessage());
             throw new RuntimeException("Ошибка загрузки конфигурации", e);
         }
     }
-    
+
+    private static Map<String, String> readFile(Path file) {
+        try (InputStream input = Files.newInputStream(file)) {
+            return toMap(input);
+        } catch (IOException e) {
+            logger.error("Ошибка при загрузке файла {}: {}", file, e.getMessage());
+            throw new RuntimeException("Ошибка загрузки конфигурации из " + file, e);
+        }
+    }
+
+    private static Map<String, String> toMap(InputStream input) throws IOException {
+        Properties loaded = new Properties();
+        loaded.load(input);
+        Map<String, String> result = new LinkedHashMap<>();
+        loaded.stringPropertyNames().forEach(key -> result.put(key, loaded.getProperty(key)));
+        return result;
+    }
+
     /**
-     * Получение значения свойства по ключу
+     * Значение из -Dkey или переменной окружения SAUCEDEMO_KEY
      */
-    public String getProperty(String key) {
-        String value = properties.getProperty(key);
+    private static String lookupOverride(String key) {
+        String value = System.getProperty(key);
         if (value == null) {
-            logger.warn("Свойство {} не найдено в конфигурации", key);
+            value = System.getenv(toEnvName(key));
         }
-        return value;
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static String toEnvName(String key) {
+        return ENV_PREFIX + key.toUpperCase().replace('.', '_').replace('-', '_');
+    }
+
+    /**
+     * Активный профиль конфигурации; null, если профиль не задан
+     */
+    public String getProfile() {
+        return profile;
     }
-    
+
+    /**
+     * Получение значения свойства по ключу
+     */
+    public String getProperty(String key) {
+        return properties.get(key);
+    }
+
     /**
      * Получение значения свойства с дефолтным значением
      */
     public String getProperty(String key, String defaultValue) {
-        String value = properties.getProperty(key, defaultValue);
-        logger.debug("Свойство {} = {}", key, value);
-        return value;
+        return properties.getOrDefault(key, defaultValue);
     }
-    
+
     /**
      * Получение целочисленного свойства
      */
     public int getIntProperty(String key) {
-        String value = getProperty(key);
+        Object value = typedProperties.get(key);
+        if (value instanceof Integer) {
+            return (Integer) value;
+        }
         try {
-            return Integer.parseInt(value);
+            return Integer.parseInt(getProperty(key));
         } catch (NumberFormatException e) {
-            logger.error("Неверный формат числа для свойства {}: {}", key, value);
-            throw new RuntimeException("Неверный формат конфигурационного параметра", e);
+            throw new RuntimeException("Неверный формат конфигурационного параметра " + key, e);
         }
     }
-    
+
+    private long getLongProperty(String key) {
+        return (Long) typedProperties.get(key);
+    }
+
     /**
      * Получение логического свойства
      */
     public boolean getBooleanProperty(String key) {
-        String value = getProperty(key);
-        return Boolean.parseBoolean(value);
+        Object value = typedProperties.get(key);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return Boolean.parseBoolean(getProperty(key));
     }
-    
+
     // Геттеры для конкретных свойств (удобство использования)
-    
+
+    /**
+     * URL приложения. Значение local запускает встроенный сервер-заглушку
+     * и возвращает его адрес
+     */
     public String getBaseUrl() {
-        return getProperty("base.url");
+        String baseUrl = getProperty("base.url");
+        if (LocalSauceDemoServer.LOCAL_URL_ALIAS.equalsIgnoreCase(baseUrl)) {
+            return LocalSauceDemoServer.getInstance().getBaseUrl();
+        }
+        return baseUrl;
     }
-    
+
     public String getBrowser() {
         return getProperty("browser", "chrome");
     }
-    
+
     public String getStandardUser() {
         return getProperty("standard.user");
     }
-    
+
     public String getStandardPassword() {
         return getProperty("standard.password");
     }
-    
+
     public String getLockedUser() {
         return getProperty("locked.user");
     }
-    
+
     public String getPerformanceUser() {
         return getProperty("performance.user");
     }
-    
+
     public int getImplicitWait() {
         return getIntProperty("implicit.wait");
     }
-    
+
     public int getPageLoadTimeout() {
         return getIntProperty("page.load.timeout");
     }
-    
+
+    public int getExplicitWait() {
+        return getIntProperty("explicit.wait");
+    }
+
+    public int getScriptTimeout() {
+        return getIntProperty("script.timeout");
+    }
+
+    public int getStubPort() {
+        return getIntProperty("stub.port");
+    }
+
+    public int getStubLatencyMs() {
+        return getIntProperty("stub.latency.ms");
+    }
+
+    public int getStubGlitchDelayMs() {
+        return getIntProperty("stub.glitch.delay.ms");
+    }
+
+    /**
+     * Закрепленный путь к chromedriver; пустое значение - разрешение через кэш
+     */
+    public String getDriverBinaryPath() {
+        return getProperty("driver.binary.path", "");
+    }
+
+    public String getBrowserBinaryPath() {
+        return getProperty("browser.binary.path", "");
+    }
+
+    public String getDriverCacheDirectory() {
+        return getProperty("driver.cache.dir", "");
+    }
+
+    public boolean isDriverOffline() {
+        return getBooleanProperty("driver.offline");
+    }
+
+    public boolean isDriverCacheRefresh() {
+        return getBooleanProperty("driver.cache.refresh");
+    }
+
+    /**
+     * Переиспользование сессий браузера между тестами вместо закрытия после каждого
+     */
+    public boolean isSessionRecycle() {
+        return getBooleanProperty("session.recycle");
+    }
+
+    /**
+     * Сколько тестов выполняет одна сессия до замены
+     */
+    public int getSessionMaxUses() {
+        return getIntProperty("session.max.uses");
+    }
+
+    /**
+     * Сколько свободных сессий держать запущенными заранее
+     */
+    public int getSessionPrelaunch() {
+        return getIntProperty("session.prelaunch");
+    }
+
+    /**
+     * Учет процессов браузера (RSS, CPU, дескрипторы) и завершение оставшихся после quit
+     */
+    public boolean isProcessMonitorEnabled() {
+        return getBooleanProperty("process.monitor.enabled");
+    }
+
+    /**
+     * Сколько ждать завершения процессов браузера после quit до принудительного завершения
+     */
+    public int getProcessReapTimeoutMs() {
+        return getIntProperty("process.reap.timeout.ms");
+    }
+
+    /**
+     * Облегченный режим браузера: headless, урезанный профиль, блокировка ресурсов
+     */
+    public boolean isLightweightBrowser() {
+        return getBooleanProperty("browser.lightweight");
+    }
+
+    public String getBrowserWindowSize() {
+        return getProperty("browser.window.size", "1280,800");
+    }
+
+    /**
+     * Блокируемые типы ресурсов через запятую: image, font, media
+     */
+    public String getBlockedResourceTypes() {
+        return getProperty("browser.blocked.resources", "");
+    }
+
+    /**
+     * Дополнительные блокируемые шаблоны URL через запятую (* - любая подстрока)
+     */
+    public String getBlockedUrlPatterns() {
+        return getProperty("browser.blocked.urls", "");
+    }
+
+    /**
+     * Инициализация полей @FindBy: generated - сгенерированные при компиляции локаторы,
+     * pagefactory - PageFactory (рефлексия и прокси)
+     */
+    public String getPageLocators() {
+        return getProperty("page.locators").trim().toLowerCase();
+    }
+
+    public boolean isElementCacheEnabled() {
+        return getBooleanProperty("element.cache.enabled");
+    }
+
+    public boolean isCommandMetricsEnabled() {
+        return getBooleanProperty("command.metrics.enabled");
+    }
+
+    /**
+     * Бюджет времени на тест, мс
+     */
+    public long getPerformanceThresholdMs() {
+        return getLongProperty("performance.threshold.ms");
+    }
+
+    /**
+     * Реакция на превышение бюджета: flag - пометить тест в отчете, fail - уронить тест
+     */
+    public String getPerformanceBudgetMode() {
+        return getProperty("performance.budget.mode").trim().toLowerCase();
+    }
+
+    public String getPerformanceReportDirectory() {
+        return getProperty("performance.report.dir");
+    }
+
+    /**
+     * Включение нагрузочного теста LoginLoadTests
+     */
+    public boolean isLoadEnabled() {
+        return getBooleanProperty("load.enabled");
+    }
+
+    /**
+     * Число виртуальных пользователей нагрузочного режима
+     */
+    public int getLoadUsers() {
+        return getIntProperty("load.users");
+    }
+
+    public int getLoadRampUpSeconds() {
+        return getIntProperty("load.ramp.up.seconds");
+    }
+
+    public int getLoadDurationSeconds() {
+        return getIntProperty("load.duration.seconds");
+    }
+
+    /**
+     * Целевая интенсивность, итераций в секунду на всех пользователей; 0 - без ограничения
+     */
+    public float getLoadTargetRate() {
+        return (Float) typedProperties.get("load.target.rate");
+    }
+
+    /**
+     * Каталог истории прошлых прогонов для планирования порядка тестов
+     */
+    public String getTestHistoryDirectory() {
+        return getProperty("test.history.dir");
+    }
+
+    /**
+     * Текстовые вложения от этого размера сжимаются gzip; 0 - не сжимать
+     */
+    public int getAttachmentsGzipThresholdKb() {
+        return getIntProperty("attachments.gzip.threshold.kb");
+    }
+
+    /**
+     * Предельный объем вложений в каталоге результатов; 0 - без ограничения
+     */
+    public int getAttachmentsMaxSizeMb() {
+        return getIntProperty("attachments.max.size.mb");
+    }
+
+    /**
+     * Результаты и вложения старше этого срока удаляются; 0 - без ограничения
+     */
+    public int getAttachmentsMaxAgeDays() {
+        return getIntProperty("attachments.max.age.days");
+    }
+
+    /**
+     * Сколько последних запусков теста учитывать при оценке длительности
+     */
+    public int getTestHistoryRuns() {
+        return getIntProperty("test.history.runs");
+    }
+
+    /**
+     * Номер шарда текущей JVM, с нуля
+     */
+    public int getShardIndex() {
+        return getIntProperty("shard.index");
+    }
+
+    /**
+     * Общее число шардов; 1 - без шардирования
+     */
+    public int getShardTotal() {
+        return getIntProperty("shard.total");
+    }
+
+    /**
+     * Файл длительностей классов для разбиения на шарды; пусто - разбиение по хэшу имени
+     */
+    public String getShardDurationsFile() {
+        return getProperty("shard.durations", "");
+    }
+
+    /**
+     * Снятие метрик производительности страниц в браузере
+     */
+    public boolean isPageMetricsEnabled() {
+        return getBooleanProperty("page.metrics.enabled");
+    }
+
+    public String getPageMetricsBaselineFile() {
+        return getProperty("page.metrics.baseline.file");
+    }
+
+    /**
+     * Сохранить медианы прогона как новые базовые метрики
+     */
+    public boolean isPageMetricsBaselineUpdate() {
+        return getBooleanProperty("page.metrics.baseline.update");
+    }
+
+    public int getPageMetricsTolerancePercent() {
+        return getIntProperty("page.metrics.tolerance.percent");
+    }
+
+    public int getPageMetricsToleranceMs() {
+        return getIntProperty("page.metrics.tolerance.ms");
+    }
+
+    public boolean isBatchMode() {
+        return getBooleanProperty("batch.mode");
+    }
+
     public boolean isScreenshotOnFailure() {
         return getBooleanProperty("screenshot.on.failure");
     }
-    
+
     public String getScreenshotDirectory() {
         return getProperty("screenshot.directory");
     }
-}
\ No newline at end of file
+
+    /**
+     * Максимальная ширина скриншота в отчете; более широкие уменьшаются
+     */
+    public int getScreenshotMaxWidth() {
+        return getIntProperty("screenshot.max.width");
+    }
+
+    public float getScreenshotJpegQuality() {
+        return (Float) typedProperties.get("screenshot.jpeg.quality");
+    }
+
+    public int getArtifactThreads() {
+        return getIntProperty("artifacts.threads");
+    }
+
+    public int getArtifactQueueSize() {
+        return getIntProperty("artifacts.queue.size");
+    }
+}
@@ -0,0 +1,276 @@
+package com.saucedemo.utils;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Разрешение пути к chromedriver один раз на прогон.
+ * Драйвер хранится в локальном дисковом кэше по мажорной версии браузера,
+ * поэтому повторные запуски не обращаются к сети:
+ * <ul>
+ *     <li>driver.binary.path - закрепленный бинарник (герметичные CI-агенты), кэш не используется</li>
+ *     <li>попадание в кэш - путь берется из индекса без WebDriverManager</li>
+ *     <li>промах - однократная загрузка через WebDriverManager (запрещена при driver.offline=true)</li>
+ *     <li>версия браузера не определена - драйвер загружается без записи в кэш,
+ *     в режиме driver.offline это ошибка</li>
+ * </ul>
+ * Обновление кэша: -Ddriver.cache.refresh=true или
+ * mvn exec:java -Dexec.mainClass=com.saucedemo.utils.DriverBinaryResolver
+ */
+public final class DriverBinaryResolver {
+    private static final Logger logger = LogManager.getLogger(DriverBinaryResolver.class);
+    private static final String INDEX_FILE = "drivers.properties";
+    private static final Pattern VERSION_PATTERN = Pattern.compile("(\\d+)\\.\\d+\\.\\d+(\\.\\d+)?");
+    private static final long VERSION_TIMEOUT_SECONDS = 5;
+    private static final List<String> BROWSER_COMMANDS = List.of("google-chrome", "google-chrome-stable",
+            "chromium", "chromium-browser",
+            "/Applications/Google Chrome.app/Contents/MacOS/Google Chrome");
+
+    private DriverBinaryResolver() {
+        // Утилитарный класс
+    }
+
+    // Разрешается один раз при первом обращении; ошибка запоминается, а не ломает инициализацию класса
+    private static final class Holder {
+        private static final Path CHROME_DRIVER;
+        private static final RuntimeException FAILURE;
+
+        static {
+            Path driver = null;
+            RuntimeException failure = null;
+            try {
+                driver = resolve(ConfigReader.getInstance().isDriverCacheRefresh());
+            } catch (RuntimeException e) {
+                logger.error("Не удалось разрешить chromedriver: {}", e.getMessage());
+                failure = e;
+            }
+            CHROME_DRIVER = driver;
+            FAILURE = failure;
+        }
+    }
+
+    /**
+     * Путь к chromedriver для текущего прогона.
+     * Если разрешить драйвер не удалось, каждый вызов сообщает исходную причину
+     */
+    public static Path getChromeDriver() {
+        if (Holder.FAILURE != null) {
+            throw new IllegalStateException("chromedriver не разрешен: " + Holder.FAILURE.getMessage(),
+                    Holder.FAILURE);
+        }
+        return Holder.CHROME_DRIVER;
+    }
+
+    /**
+     * Закрепленный бинарник браузера (browser.binary.path), если задан
+     */
+    public static Optional<Path> getPinnedBrowser() {
+        return Optional.ofNullable(blankToNull(ConfigReader.getInstance().getBrowserBinaryPath()))
+                .map(Paths::get);
+    }
+
+    /**
+     * Явное обновление кэша под установленную версию браузера
+     */
+    public static void main(String[] args) {
+        Path driver = resolve(true);
+        logger.info("Кэш драйверов обновлен: {}", driver);
+    }
+
+    private static Path resolve(boolean refresh) {
+        ConfigReader config = ConfigReader.getInstance();
+
+        String pinned = blankToNull(config.getDriverBinaryPath());
+        if (pinned != null) {
+            Path driver = Paths.get(pinned);
+            if (!Files.isExecutable(driver)) {
+                throw new RuntimeException("Закрепленный драйвер не найден или не исполняемый: " + driver);
+            }
+            logger.info("Используется закрепленный chromedriver: {}", driver);
+            return driver;
+        }
+
+        Path cacheDir = getCacheDirectory();
+        String browserVersion = detectBrowserMajorVersion();
+        if (browserVersion == null) {
+            // Без версии ключ кэша неизвестен: драйвер, сохраненный под ним, пережил бы обновление браузера
+            if (config.isDriverOffline()) {
+                throw new RuntimeException("Не удалось определить версию браузера, а загрузка запрещена "
+                        + "(driver.offline=true). Укажите driver.binary.path или browser.binary.path");
+            }
+            logger.warn("Не удалось определить версию браузера - chromedriver загружается без записи в кэш");
+            return download(cacheDir, null);
+        }
+        Properties index = readIndex(cacheDir);
+
+        String cached = index.getProperty(browserVersion);
+        if (!refresh && cached != null && Files.isExecutable(Paths.get(cached))) {
+            logger.info("chromedriver для Chrome {} взят из локального кэша: {}", browserVersion, cached);
+            return Paths.get(cached);
+        }
+
+        if (config.isDriverOffline()) {
+            throw new RuntimeException("chromedriver для Chrome " + browserVersion + " отсутствует в кэше "
+                    + cacheDir + ", а загрузка запрещена (driver.offline=true). "
+                    + "Обновите кэш командой: mvn exec:java -Dexec.mainClass=" + DriverBinaryResolver.class.getName());
+        }
+
+        Path driver = download(cacheDir, browserVersion);
+        index.setProperty(browserVersion, driver.toString());
+        writeIndex(cacheDir, index);
+        return driver;
+    }
+
+    /**
+     * Однократная загрузка через WebDriverManager и копирование в кэш
+     *
+     * @param browserVersion мажорная версия браузера; null - версию выбирает WebDriverManager,
+     *                       драйвер в кэш не копируется
+     */
+    private static Path download(Path cacheDir, String browserVersion) {
+        logger.info("Загрузка chromedriver для Chrome {}", browserVersion == null ? "(версия не определена)"
+                : browserVersion);
+        WebDriverManager manager = WebDriverManager.chromedriver()
+                .cachePath(cacheDir.resolve("wdm").toString());
+        if (browserVersion != null) {
+            manager.browserVersion(browserVersion);
+        }
+        manager.setup();
+
+        Path downloaded = Paths.get(manager.getDownloadedDriverPath());
+        if (browserVersion == null) {
+            return downloaded;
+        }
+        Path target = cacheDir.resolve(browserVersion).resolve(downloaded.getFileName());
+        try {
+            Files.createDirectories(target.getParent());
+            Files.copy(downloaded, target, StandardCopyOption.REPLACE_EXISTING);
+            target.toFile().setExecutable(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось сохранить chromedriver в кэш " + target, e);
+        }
+        logger.info("chromedriver сохранен в кэш: {}", target);
+        return target;
+    }
+
+    /**
+     * Мажорная версия установленного браузера; определяется локально, без сети.
+     * null, если версию определить не удалось
+     */
+    private static String detectBrowserMajorVersion() {
+        Optional<Path> pinnedBrowser = getPinnedBrowser();
+        List<String> commands = pinnedBrowser.map(path -> List.of(path.toString())).orElse(BROWSER_COMMANDS);
+        for (String command : commands) {
+            String output = runQuietly(command, "--version");
+            if (output == null) {
+                continue;
+            }
+            Matcher matcher = VERSION_PATTERN.matcher(output);
+            if (matcher.find()) {
+                return matcher.group(1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Первая строка вывода команды. Вывод читается в отдельном потоке с таймаутом:
+     * зависший бинарник не останавливает прогон и принудительно завершается
+     */
+    private static String runQuietly(String... command) {
+        Process process;
+        try {
+            process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        } catch (IOException e) {
+            return null;
+        }
+        CompletableFuture<String> firstLine = CompletableFuture.supplyAsync(() -> readFirstLine(process));
+        try {
+            return firstLine.get(VERSION_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("{} не ответил за {} с - процесс завершен", command[0], VERSION_TIMEOUT_SECONDS);
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            // Обертки вроде google-chrome запускают браузер дочерним процессом
+            process.descendants().forEach(ProcessHandle::destroyForcibly);
+            process.destroyForcibly();
+        }
+    }
+
+    private static String readFirstLine(Process process) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            return reader.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path getCacheDirectory() {
+        String configured = blankToNull(ConfigReader.getInstance().getDriverCacheDirectory());
+        return configured != null
+                ? Paths.get(configured)
+                : Paths.get(System.getProperty("user.home"), ".cache", "saucedemo-drivers");
+    }
+
+    private static Properties readIndex(Path cacheDir) {
+        Properties index = new Properties();
+        Path file = cacheDir.resolve(INDEX_FILE);
+        if (Files.exists(file)) {
+            try (InputStream input = Files.newInputStream(file)) {
+                index.load(input);
+            } catch (IOException e) {
+                logger.warn("Индекс кэша драйверов поврежден, он будет пересоздан: {}", e.getMessage());
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Запись через временный файл, чтобы параллельные JVM не прочитали индекс наполовину
+     */
+    private static void writeIndex(Path cacheDir, Properties index) {
+        try {
+            Files.createDirectories(cacheDir);
+            Path temp = Files.createTempFile(cacheDir, INDEX_FILE, ".tmp");
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                index.store(output, "chromedriver по мажорной версии браузера");
+            }
+            Files.move(temp, cacheDir.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать индекс кэша драйверов", e);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -1,69 +1,329 @@
 package com.saucedemo.utils;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LoggingPreferences;
+import org.openqa.selenium.support.events.EventFiringDecorator;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
 
+/**
+ * Управление жизненным циклом WebDriver.
+ * Каждый поток (воркер JUnit) владеет собственным драйвером, поэтому тесты
+ * можно запускать параллельно без перезаписи браузеров друг друга.
+ * При session.recycle=true сессия после успешного теста не закрывается, а сбрасывается
+ * (cookies, storage, about:blank), проверяется и возвращается в пул свободных сессий.
+ * Сессия выводится из пула после session.max.uses тестов или после падения теста;
+ * замена заранее запускается в фоне (session.prelaunch), чтобы тест не ждал холодный старт.
+ */
 public class DriverManager {
     private static final Logger logger = LogManager.getLogger(DriverManager.class);
-    private static WebDriver driver;
-    private static DriverManager instance;
-    
+    private static final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    // Все активные драйверы, чтобы quitAllDrivers() мог закрыть сессии других потоков
+    private static final Set<WebDriver> activeDrivers = ConcurrentHashMap.newKeySet();
+    // Свободные сброшенные сессии, готовые к следующему тесту
+    private static final BlockingDeque<WebDriver> idleDrivers = new LinkedBlockingDeque<>();
+    // Сколько тестов выполнила каждая сессия
+    private static final Map<WebDriver, Integer> sessionUses = new ConcurrentHashMap<>();
+    private static final AtomicInteger prelaunching = new AtomicInteger();
+    private static final ExecutorService prelauncher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "driver-prelaunch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static volatile boolean shuttingDown;
+    private static volatile DriverManager instance;
+
+    private static final String CLEAR_STORAGE_SCRIPT = """
+            try { window.localStorage.clear(); } catch (e) { }
+            try { window.sessionStorage.clear(); } catch (e) { }
+            """;
+
     private DriverManager() {
         // Приватный конструктор
     }
-    
-    public static synchronized DriverManager getInstance() {
+
+    public static DriverManager getInstance() {
         if (instance == null) {
-            instance = new DriverManager();
+            synchronized (DriverManager.class) {
+                if (instance == null) {
+                    instance = new DriverManager();
+                }
+            }
         }
         return instance;
     }
-    
+
+    /**
+     * Драйвер текущего потока; при первом обращении берется свободная сессия из пула
+     * или запускается новый браузер
+     */
     public static WebDriver getDriver() {
-        if (driver == null) {
-            initializeDriver();
+        WebDriver current = driver.get();
+        if (current == null) {
+            current = idleDrivers.pollFirst();
+            if (current != null) {
+                logger.debug("Переиспользуется сессия браузера (тестов: {})", sessionUses.getOrDefault(current, 0));
+            } else {
+                current = initializeDriver();
+                activeDrivers.add(current);
+            }
+            driver.set(current);
+            prelaunchIfNeeded();
         }
-        return driver;
+        return current;
+    }
+
+    /**
+     * Драйвер текущего потока, если он уже был создан. Новый браузер не запускается
+     */
+    public static Optional<WebDriver> getExistingDriver() {
+        return Optional.ofNullable(driver.get());
     }
-    
-    private static void initializeDriver() {
+
+    private static WebDriver initializeDriver() {
         logger.info("Инициализация Chrome драйвера");
-        WebDriverManager.chromedriver().setup();
-        
+
+        ConfigReader config = ConfigReader.getInstance();
         ChromeOptions options = new ChromeOptions();
-        options.addArguments("--start-maximized");
+        DriverBinaryResolver.getPinnedBrowser().ifPresent(browser -> options.setBinary(browser.toFile()));
         options.addArguments("--disable-notifications");
-        
-        driver = new ChromeDriver(options);
-        
+
+        // Логи консоли браузера нужны для артефактов упавших тестов
+        LoggingPreferences loggingPreferences = new LoggingPreferences();
+        loggingPreferences.enable(LogType.BROWSER, Level.ALL);
+
+        if (config.isLightweightBrowser()) {
+            LightweightBrowser.configure(options, loggingPreferences);
+        } else {
+            options.addArguments("--start-maximized");
+        }
+        options.setCapability("goog:loggingPrefs", loggingPreferences);
+        if (BrowserProcessMonitor.isEnabled()) {
+            // Метка владельца: по ней находятся браузеры, пережившие упавшую JVM
+            options.addArguments(BrowserProcessMonitor.ownerArgument());
+        }
+
+        // Путь к драйверу разрешен заранее - Selenium Manager и сеть не используются
+        ChromeDriverService service = new ChromeDriverService.Builder()
+                .usingDriverExecutable(DriverBinaryResolver.getChromeDriver().toFile())
+                .usingAnyFreePort()
+                .build();
+        WebDriver newDriver = new ChromeDriver(service, options);
+        if (config.isLightweightBrowser()) {
+            LightweightBrowser.installBlocking(newDriver);
+        }
+        if (config.isCommandMetricsEnabled()) {
+            // Каждая команда драйвера и элементов проходит через замер задержки
+            newDriver = new EventFiringDecorator<>(new CommandLatencyListener()).decorate(newDriver);
+        }
+
+        BrowserProcessMonitor.register(newDriver, service.getUrl().getPort());
+
         // Настройка таймаутов
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
-        
+        newDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(config.getImplicitWait()));
+        newDriver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(config.getPageLoadTimeout()));
+        newDriver.manage().timeouts().scriptTimeout(Duration.ofSeconds(config.getScriptTimeout()));
+
         logger.info("Драйвер успешно инициализирован");
+        return newDriver;
+    }
+
+    /**
+     * Возвращает сессию текущего потока в пул после успешного теста.
+     * Сессия закрывается, если переиспользование выключено, исчерпан лимит
+     * session.max.uses или сброс состояния/проверка не прошли
+     */
+    public static void releaseDriver() {
+        WebDriver current = driver.get();
+        if (current == null) {
+            return;
+        }
+        driver.remove();
+
+        ConfigReader config = ConfigReader.getInstance();
+        int uses = sessionUses.merge(current, 1, Integer::sum);
+        if (!config.isSessionRecycle() || shuttingDown) {
+            evict(current);
+            return;
+        }
+        if (uses >= config.getSessionMaxUses()) {
+            logger.info("Сессия браузера отработала {} тестов и будет закрыта", uses);
+            evict(current);
+            prelaunchIfNeeded();
+            return;
+        }
+        if (!resetSession(current)) {
+            evict(current);
+            prelaunchIfNeeded();
+            return;
+        }
+        idleDrivers.offerFirst(current);
+    }
+
+    /**
+     * Закрывает сессию текущего потока без возврата в пул (например, после падения теста,
+     * когда состояние браузера неизвестно). Замена запускается в фоне
+     */
+    public static void discardDriver() {
+        quitDriver();
+        prelaunchIfNeeded();
     }
-    
+
+    /**
+     * Закрывает драйвер только текущего потока
+     */
     public static void quitDriver() {
-        if (driver != null) {
-            try {
-                driver.quit();
-                logger.info("Драйвер закрыт");
-            } catch (Exception e) {
-                logger.error("Ошибка при закрытии драйвера: {}", e.getMessage());
-            } finally {
-                driver = null;
-                instance = null;
-            }
+        WebDriver current = driver.get();
+        driver.remove();
+        if (current != null) {
+            evict(current);
         }
     }
-    
+
+    /**
+     * Закрывает драйверы всех потоков и свободные сессии (например, при завершении прогона)
+     */
     public static void quitAllDrivers() {
+        shuttingDown = true;
+        prelauncher.shutdownNow();
         quitDriver();
+        idleDrivers.clear();
+        for (WebDriver remaining : activeDrivers) {
+            if (activeDrivers.remove(remaining)) {
+                sessionUses.remove(remaining);
+                quit(remaining);
+            }
+        }
+    }
+
+    /**
+     * Сброс состояния между тестами и быстрая проверка, что сессия жива
+     */
+    private static boolean resetSession(WebDriver webDriver) {
+        try {
+            // Лишние окна и вкладки, открытые тестом
+            List<String> handles = new ArrayList<>(webDriver.getWindowHandles());
+            for (String handle : handles.subList(1, handles.size())) {
+                webDriver.switchTo().window(handle).close();
+            }
+            webDriver.switchTo().window(handles.get(0));
+
+            // Storage очищается, пока открыт origin приложения
+            if (webDriver instanceof JavascriptExecutor) {
+                ((JavascriptExecutor) webDriver).executeScript(CLEAR_STORAGE_SCRIPT);
+            }
+            if (webDriver instanceof HasCdp) {
+                ((HasCdp) webDriver).executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            } else {
+                webDriver.manage().deleteAllCookies();
+            }
+            webDriver.get("about:blank");
+
+            Object state = ((JavascriptExecutor) webDriver).executeScript("return document.readyState");
+            if (!"complete".equals(state)) {
+                logger.warn("Сессия браузера не прошла проверку (readyState={}) и будет закрыта", state);
+                return false;
+            }
+            // Запросы сброса не относятся к следующему тесту
+            if (ConfigReader.getInstance().isLightweightBrowser()) {
+                LightweightBrowser.resetStats(webDriver);
+            }
+            return true;
+        } catch (Exception e) {
+            logger.warn("Не удалось сбросить сессию браузера, она будет закрыта: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Фоновый запуск браузеров, пока свободных сессий меньше session.prelaunch
+     */
+    private static void prelaunchIfNeeded() {
+        ConfigReader config = ConfigReader.getInstance();
+        if (!config.isSessionRecycle() || shuttingDown) {
+            return;
+        }
+        int target = config.getSessionPrelaunch();
+        while (reservePrelaunchSlot(target)) {
+            try {
+                prelauncher.execute(DriverManager::prelaunch);
+            } catch (RejectedExecutionException e) {
+                prelaunching.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Атомарно занимает место под фоновый запуск: параллельные вызовы не могут вместе
+     * пройти проверку и запустить браузеров больше session.prelaunch
+     */
+    private static boolean reservePrelaunchSlot(int target) {
+        while (true) {
+            int current = prelaunching.get();
+            if (current >= target - idleDrivers.size()) {
+                return false;
+            }
+            if (prelaunching.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private static void prelaunch() {
+        try {
+            WebDriver prepared = initializeDriver();
+            activeDrivers.add(prepared);
+            if (shuttingDown) {
+                evict(prepared);
+                return;
+            }
+            idleDrivers.offerLast(prepared);
+            logger.debug("Запущена резервная сессия браузера");
+        } catch (Exception e) {
+            logger.warn("Не удалось заранее запустить браузер: {}", e.getMessage());
+        } finally {
+            prelaunching.decrementAndGet();
+        }
+    }
+
+    private static void evict(WebDriver webDriver) {
+        activeDrivers.remove(webDriver);
+        sessionUses.remove(webDriver);
+        quit(webDriver);
+    }
+
+    private static void quit(WebDriver webDriver) {
+        Runnable reaper = BrowserProcessMonitor.detach(webDriver);
+        try {
+            webDriver.quit();
+            logger.info("Драйвер закрыт");
+        } catch (Exception e) {
+            logger.error("Ошибка при закрытии драйвера: {}", e.getMessage());
+        } finally {
+            // Процессы, пережившие quit (в том числе неудачный), завершаются принудительно
+            reaper.run();
+        }
     }
 }
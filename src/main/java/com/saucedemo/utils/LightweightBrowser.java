@@ -0,0 +1,245 @@
+package com.saucedemo.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LoggingPreferences;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * Облегченный режим браузера (browser.lightweight=true): headless Chrome
+ * с урезанным профилем, уменьшенным окном и блокировкой необязательных ресурсов
+ * (картинки, шрифты, медиа, сторонние скрипты). Типы ресурсов перехватываются
+ * по типу запроса (CDP Fetch, RequestPattern.resourceType) и завершаются ошибкой,
+ * шаблоны URL из browser.blocked.urls блокируются через Network.setBlockedURLs.
+ * Статистика запросов снимается из performance-лога Chrome и перехватчика Fetch.
+ */
+public final class LightweightBrowser {
+    private static final Logger logger = LogManager.getLogger(LightweightBrowser.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    // Типы ресурсов CDP (Network.ResourceType) для значений browser.blocked.resources
+    private static final Map<String, String> RESOURCE_TYPES = Map.of(
+            "image", "Image",
+            "font", "Font",
+            "media", "Media");
+
+    private static final Event<Map<String, Object>> REQUEST_PAUSED =
+            new Event<>("Fetch.requestPaused", input -> input.read(Json.MAP_TYPE));
+
+    // Запросы, заблокированные перехватчиком, по сессии: requestId в Network -> тип ресурса
+    private static final Map<WebDriver, Map<String, String>> interceptedRequests =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private LightweightBrowser() {
+        // Утилитарный класс
+    }
+
+    /**
+     * Добавляет аргументы облегченного режима и включает performance-лог
+     */
+    public static void configure(ChromeOptions options, LoggingPreferences loggingPreferences) {
+        ConfigReader config = ConfigReader.getInstance();
+        options.addArguments("--headless=new");
+        options.addArguments("--window-size=" + config.getBrowserWindowSize());
+
+        // Урезанный профиль: без расширений, синхронизации и фоновых сетевых запросов
+        options.addArguments("--disable-extensions");
+        options.addArguments("--disable-background-networking");
+        options.addArguments("--disable-component-update");
+        options.addArguments("--disable-default-apps");
+        options.addArguments("--disable-sync");
+        options.addArguments("--no-first-run");
+        options.addArguments("--no-default-browser-check");
+        options.addArguments("--mute-audio");
+        options.addArguments("--disable-features=Translate,OptimizationHints,MediaRouter");
+
+        // Картинки блокируются перехватчиком запросов (installBlocking): настройка профиля
+        // отключила бы их до запроса, и они не попали бы в статистику заблокированных
+        Map<String, Object> prefs = new HashMap<>();
+        prefs.put("profile.default_content_setting_values.notifications", 2);
+        prefs.put("credentials_enable_service", false);
+        prefs.put("profile.password_manager_enabled", false);
+        options.setExperimentalOption("prefs", prefs);
+
+        // Только сетевые события - лог остается небольшим
+        loggingPreferences.enable(LogType.PERFORMANCE, Level.ALL);
+        options.setExperimentalOption("perfLoggingPrefs", Map.of("enableNetwork", true, "enablePage", false));
+    }
+
+    /**
+     * Включает блокировку ресурсов в новой сессии
+     */
+    public static void installBlocking(WebDriver driver) {
+        if (!(driver instanceof HasCdp)) {
+            logger.warn("Драйвер не поддерживает CDP - блокировка ресурсов отключена");
+            return;
+        }
+        ConfigReader config = ConfigReader.getInstance();
+        HasCdp cdp = (HasCdp) driver;
+        cdp.executeCdpCommand("Network.enable", Map.of());
+
+        List<String> urls = splitList(config.getBlockedUrlPatterns());
+        if (!urls.isEmpty()) {
+            cdp.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", urls));
+            logger.debug("Блокируемые шаблоны URL: {}", urls);
+        }
+        List<String> types = getBlockedResourceTypes();
+        if (!types.isEmpty()) {
+            interceptResourceTypes(driver, types);
+        }
+    }
+
+    /**
+     * Запросы указанных типов приостанавливаются браузером (Fetch.requestPaused)
+     * и завершаются ошибкой BlockedByClient - независимо от вида URL
+     */
+    private static void interceptResourceTypes(WebDriver driver, List<String> types) {
+        if (!(driver instanceof HasDevTools)) {
+            logger.warn("Драйвер не поддерживает DevTools - блокировка типов ресурсов {} отключена", types);
+            return;
+        }
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+
+        Map<String, String> blocked = new ConcurrentHashMap<>();
+        interceptedRequests.put(driver, blocked);
+        devTools.addListener(REQUEST_PAUSED, paused -> {
+            blocked.put(String.valueOf(paused.get("networkId")), String.valueOf(paused.get("resourceType")));
+            devTools.send(new Command<>("Fetch.failRequest",
+                    Map.of("requestId", paused.get("requestId"), "errorReason", "BlockedByClient")));
+        });
+
+        List<Map<String, Object>> patterns = new ArrayList<>();
+        types.forEach(type -> patterns.add(Map.of("urlPattern", "*", "resourceType", type)));
+        devTools.send(new Command<>("Fetch.enable", Map.of("patterns", patterns)));
+        logger.debug("Блокируемые типы ресурсов: {}", types);
+    }
+
+    /**
+     * Статистика запросов с момента предыдущего вызова (performance-лог очищается при чтении)
+     */
+    public static Map<String, Object> collectStats(WebDriver driver) {
+        long requests = 0;
+        long blocked = 0;
+        long transferredBytes = 0;
+        Map<String, Long> blockedByType = new TreeMap<>();
+        Map<String, String> requestTypes = new HashMap<>();
+
+        Map<String, String> intercepted = drainIntercepted(driver);
+        for (String type : intercepted.values()) {
+            blocked++;
+            blockedByType.merge(type, 1L, Long::sum);
+        }
+
+        for (LogEntry entry : driver.manage().logs().get(LogType.PERFORMANCE)) {
+            JsonNode message;
+            try {
+                message = mapper.readTree(entry.getMessage()).path("message");
+            } catch (IOException e) {
+                continue;
+            }
+            JsonNode params = message.path("params");
+            switch (message.path("method").asText()) {
+                case "Network.requestWillBeSent":
+                    requests++;
+                    requestTypes.put(params.path("requestId").asText(), params.path("type").asText("Other"));
+                    break;
+                case "Network.loadingFinished":
+                    transferredBytes += params.path("encodedDataLength").asLong();
+                    break;
+                case "Network.loadingFailed":
+                    // Запросы перехватчика уже учтены выше
+                    if (params.hasNonNull("blockedReason")
+                            && !intercepted.containsKey(params.path("requestId").asText())) {
+                        blocked++;
+                        String type = params.path("type").asText(
+                                requestTypes.getOrDefault(params.path("requestId").asText(), "Other"));
+                        blockedByType.merge(type, 1L, Long::sum);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("requests", requests);
+        stats.put("blockedRequests", blocked);
+        stats.put("blockedByType", blockedByType);
+        stats.put("transferredBytes", transferredBytes);
+        return stats;
+    }
+
+    /**
+     * Отбрасывает накопленные события performance-лога: следующий collectStats
+     * посчитает запросы только с этого момента
+     */
+    public static void resetStats(WebDriver driver) {
+        driver.manage().logs().get(LogType.PERFORMANCE);
+        drainIntercepted(driver);
+    }
+
+    /**
+     * Забирает заблокированные перехватчиком запросы сессии, накопленные с прошлого вызова
+     */
+    private static Map<String, String> drainIntercepted(WebDriver driver) {
+        // В тестах драйвер обернут EventFiringDecorator, перехватчик зарегистрирован на исходном
+        WebDriver original = driver instanceof WrapsDriver ? ((WrapsDriver) driver).getWrappedDriver() : driver;
+        Map<String, String> blocked = interceptedRequests.get(original);
+        if (blocked == null) {
+            return Map.of();
+        }
+        Map<String, String> drained = new HashMap<>();
+        for (String requestId : new ArrayList<>(blocked.keySet())) {
+            String type = blocked.remove(requestId);
+            if (type != null) {
+                drained.put(requestId, type);
+            }
+        }
+        return drained;
+    }
+
+    private static List<String> getBlockedResourceTypes() {
+        List<String> types = new ArrayList<>();
+        for (String type : splitList(ConfigReader.getInstance().getBlockedResourceTypes())) {
+            String resourceType = RESOURCE_TYPES.get(type.toLowerCase());
+            if (resourceType == null) {
+                logger.warn("Неизвестный тип ресурса для блокировки: {}", type);
+                continue;
+            }
+            types.add(resourceType);
+        }
+        return types;
+    }
+
+    private static List<String> splitList(String value) {
+        List<String> items = new ArrayList<>();
+        Arrays.stream(value.split(",")).map(String::trim).filter(item -> !item.isEmpty()).forEach(items::add);
+        return items;
+    }
+}
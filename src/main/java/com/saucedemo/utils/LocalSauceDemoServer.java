@@ -0,0 +1,182 @@
+package com.saucedemo.utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Встроенный локальный сервер-заглушка SauceDemo.
+ * Отдает копии страниц логина, продуктов и корзины из ресурсов stub/
+ * и воспроизводит сообщения об ошибках, которые проверяются в тестах.
+ * Запускается один раз на прогон при первом обращении (base.url=local).
+ */
+public class LocalSauceDemoServer {
+    private static final Logger logger = LogManager.getLogger(LocalSauceDemoServer.class);
+
+    public static final String LOCAL_URL_ALIAS = "local";
+
+    private static final String SESSION_COOKIE = "session-username";
+    private static final String GLITCH_USER = "performance_glitch_user";
+    private static final Set<String> ACTIVE_USERS = Set.of("standard_user", "problem_user",
+            GLITCH_USER, "error_user", "visual_user");
+    private static final List<String> PROTECTED_PAGES = List.of("/inventory.html", "/cart.html");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, byte[]> resources = new HashMap<>();
+    private final Map<String, AtomicInteger> requestCounts = new ConcurrentHashMap<>();
+    private final long latencyMs;
+    private final long glitchDelayMs;
+
+    private LocalSauceDemoServer() {
+        ConfigReader config = ConfigReader.getInstance();
+        int port = config.getStubPort();
+        this.latencyMs = config.getStubLatencyMs();
+        this.glitchDelayMs = config.getStubGlitchDelayMs();
+
+        for (String page : List.of("index.html", "inventory.html", "cart.html", "stub.css")) {
+            resources.put("/" + page, readResource("stub/" + page));
+        }
+
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось запустить локальный сервер SauceDemo", e);
+        }
+        executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "saucedemo-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "saucedemo-stub-shutdown"));
+        logger.info("Локальный сервер SauceDemo запущен: {}", getBaseUrl());
+    }
+
+    private static final class Holder {
+        private static final LocalSauceDemoServer INSTANCE = new LocalSauceDemoServer();
+    }
+
+    /**
+     * Экземпляр сервера; запускается при первом обращении
+     */
+    public static LocalSauceDemoServer getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * Число запросов к пути с начала прогона ("/" учитывается как "/index.html")
+     */
+    public int getRequestCount(String path) {
+        AtomicInteger count = requestCounts.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    private void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/")) {
+                path = "/index.html";
+            }
+            requestCounts.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+
+            byte[] body = resources.get(path);
+            if (body == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+
+            String user = getSessionUser(exchange);
+            if (PROTECTED_PAGES.contains(path) && (user == null || !ACTIVE_USERS.contains(user))) {
+                // Как и оригинал, возвращаем на страницу логина с сообщением об ошибке
+                exchange.getResponseHeaders().set("Location", "/?denied=" + path);
+                exchange.sendResponseHeaders(302, -1);
+                return;
+            }
+
+            delay(latencyMs);
+            if (GLITCH_USER.equals(user) && path.equals("/inventory.html")) {
+                delay(glitchDelayMs);
+            }
+
+            exchange.getResponseHeaders().set("Content-Type", contentType(path));
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String getSessionUser(HttpExchange exchange) {
+        List<String> headers = exchange.getRequestHeaders().get("Cookie");
+        if (headers == null) {
+            return null;
+        }
+        for (String header : headers) {
+            for (String cookie : header.split(";")) {
+                String[] pair = cookie.trim().split("=", 2);
+                if (pair.length == 2 && pair[0].equals(SESSION_COOKIE)) {
+                    return pair[1];
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String contentType(String path) {
+        return path.endsWith(".css") ? "text/css; charset=utf-8" : "text/html; charset=utf-8";
+    }
+
+    private static void delay(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] readResource(String name) {
+        try (InputStream input = LocalSauceDemoServer.class.getClassLoader().getResourceAsStream(name)) {
+            if (input == null) {
+                throw new RuntimeException("Ресурс " + name + " не найден в classpath");
+            }
+            return input.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Ошибка чтения ресурса " + name, e);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package com.saucedemo.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.saucedemo.constants.Constants;
+import com.saucedemo.pages.LoginPage;
+import com.saucedemo.pages.ProductsPage;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Нагрузочный режим для сценария логина.
+ * N виртуальных пользователей (виртуальные потоки Java) с собственными браузерами
+ * повторяют сценарий логин -> страница продуктов через LoginPage/ProductsPage.
+ * Поддерживаются плавный старт (ramp-up), длительность и целевая интенсивность;
+ * по каждому шагу считаются пропускная способность и p50/p95/p99.
+ */
+public class LoginLoadRunner {
+    private static final Logger logger = LogManager.getLogger(LoginLoadRunner.class);
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final String REPORT_FILE = "load-login.json";
+
+    private static final String STEP_OPEN = "open";
+    private static final String STEP_LOGIN = "login";
+    private static final String STEP_INVENTORY = "inventory";
+    private static final String STEP_ITERATION = "iteration";
+
+    private final int users;
+    private final Duration rampUp;
+    private final Duration duration;
+    private final double targetRate;
+    private final String username;
+    private final String password;
+
+    private final Map<String, ConcurrentHistogram> steps = new LinkedHashMap<>();
+    private final LongAdder iterations = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    // Время следующего разрешенного старта итерации при заданной интенсивности
+    private final AtomicLong nextSlotNanos = new AtomicLong();
+
+    /**
+     * @param targetRate целевое число итераций в секунду на всех пользователей; 0 - без ограничения
+     */
+    public LoginLoadRunner(int users, Duration rampUp, Duration duration, double targetRate,
+                           String username, String password) {
+        this.users = users;
+        this.rampUp = rampUp;
+        this.duration = duration;
+        this.targetRate = targetRate;
+        this.username = username;
+        this.password = password;
+        for (String step : List.of(STEP_OPEN, STEP_LOGIN, STEP_INVENTORY, STEP_ITERATION)) {
+            steps.put(step, new ConcurrentHistogram(3));
+        }
+    }
+
+    /**
+     * Параметры из конфигурации (load.*)
+     */
+    public static LoginLoadRunner fromConfig() {
+        ConfigReader config = ConfigReader.getInstance();
+        return new LoginLoadRunner(config.getLoadUsers(),
+                Duration.ofSeconds(config.getLoadRampUpSeconds()),
+                Duration.ofSeconds(config.getLoadDurationSeconds()),
+                config.getLoadTargetRate(),
+                Constants.PERFORMANCE_USER,
+                Constants.STANDARD_PASSWORD);
+    }
+
+    /**
+     * Запускает нагрузку, сохраняет отчет в performance.report.dir/load-login.json
+     * и возвращает его в JSON
+     */
+    public String run() {
+        logger.info("Нагрузка: {} пользователей, ramp-up {} с, длительность {} с, интенсивность {}/с",
+                users, rampUp.toSeconds(), duration.toSeconds(), targetRate > 0 ? targetRate : "без ограничения");
+
+        long startNanos = System.nanoTime();
+        long endNanos = startNanos + rampUp.toNanos() + duration.toNanos();
+        nextSlotNanos.set(startNanos);
+
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                long startOffset = users > 1 ? rampUp.toNanos() * i / (users - 1) : 0;
+                futures.add(executor.submit(() -> runVirtualUser(startNanos + startOffset, endNanos)));
+            }
+        }
+        // Исключения внутри пользователя учтены в runVirtualUser; здесь - то, что вышло за его пределы
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                errors.increment();
+                logger.error("Виртуальный пользователь аварийно завершился: {}", e.getCause().toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+        String report = buildReport(elapsedSeconds);
+        writeReport(report);
+        return report;
+    }
+
+    private void runVirtualUser(long startAtNanos, long endNanos) {
+        sleepUntil(startAtNanos);
+        try {
+            WebDriver driver = DriverManager.getDriver();
+            while (System.nanoTime() < endNanos) {
+                if (!acquireSlot(endNanos)) {
+                    break;
+                }
+                runIteration(driver);
+            }
+        } catch (Exception e) {
+            errors.increment();
+            logger.error("Виртуальный пользователь завершился с ошибкой: {}", e.getMessage());
+        } finally {
+            DriverManager.quitDriver();
+        }
+    }
+
+    private void runIteration(WebDriver driver) {
+        long iterationStart = System.nanoTime();
+        try {
+            driver.manage().deleteAllCookies();
+            LoginPage loginPage = new LoginPage(driver);
+
+            long stepStart = System.nanoTime();
+            loginPage.open(Constants.LOGIN_PAGE_URL);
+            stepStart = recordStep(STEP_OPEN, stepStart);
+
+            loginPage.login(username, password);
+            stepStart = recordStep(STEP_LOGIN, stepStart);
+
+            boolean displayed = new ProductsPage(driver).isProductsPageDisplayed();
+            recordStep(STEP_INVENTORY, stepStart);
+
+            if (!displayed) {
+                errors.increment();
+                return;
+            }
+            recordStep(STEP_ITERATION, iterationStart);
+            iterations.increment();
+        } catch (Exception e) {
+            errors.increment();
+            logger.warn("Ошибка итерации нагрузки: {}", e.getMessage());
+        }
+    }
+
+    private long recordStep(String step, long stepStart) {
+        long now = System.nanoTime();
+        steps.get(step).recordValue(Math.max(1, (now - stepStart) / 1000));
+        return now;
+    }
+
+    /**
+     * Ожидает свой слот при заданной интенсивности; false, если слот за пределами теста
+     */
+    private boolean acquireSlot(long endNanos) {
+        if (targetRate <= 0) {
+            return true;
+        }
+        long interval = (long) (1e9 / targetRate);
+        long slot = nextSlotNanos.getAndUpdate(current -> Math.max(current, System.nanoTime()) + interval);
+        slot = Math.max(slot, System.nanoTime());
+        if (slot >= endNanos) {
+            return false;
+        }
+        sleepUntil(slot);
+        return true;
+    }
+
+    private static void sleepUntil(long deadlineNanos) {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(Duration.ofNanos(remaining));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void writeReport(String report) {
+        Path file = Paths.get(ConfigReader.getInstance().getPerformanceReportDirectory(), REPORT_FILE);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Files.writeString(file, report);
+            logger.info("Отчет нагрузки сохранен: {}", file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось сохранить отчет нагрузки", e);
+        }
+    }
+
+    private String buildReport(double elapsedSeconds) {
+        long completed = iterations.sum();
+        long failed = errors.sum();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("users", users);
+        report.put("rampUpSeconds", rampUp.toSeconds());
+        report.put("durationSeconds", duration.toSeconds());
+        report.put("targetRate", targetRate);
+        report.put("elapsedSeconds", Math.round(elapsedSeconds * 10) / 10.0);
+        report.put("iterations", completed);
+        report.put("errors", failed);
+        report.put("errorRate", completed + failed == 0 ? 0 : (double) failed / (completed + failed));
+        report.put("throughputPerSecond", Math.round(completed / elapsedSeconds * 100) / 100.0);
+
+        Map<String, Object> stepStats = new LinkedHashMap<>();
+        steps.forEach((name, histogram) -> stepStats.put(name, CommandMetrics.describe(histogram)));
+        report.put("steps", stepStats);
+
+        try {
+            String json = mapper.writeValueAsString(report);
+            logger.info("Нагрузка завершена: {} итераций, {} ошибок, {} итераций/с",
+                    completed, failed, report.get("throughputPerSecond"));
+            return json;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось сериализовать отчет нагрузки", e);
+        }
+    }
+}
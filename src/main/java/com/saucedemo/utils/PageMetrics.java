@@ -0,0 +1,227 @@
+package com.saucedemo.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Метрики производительности страниц из браузера (Navigation Timing, paint, long tasks)
+ * по имени страницы (Constants.LOGIN_PAGE_NAME, PRODUCTS_PAGE_NAME).
+ * Каждый замер сравнивается с локальным базовым файлом (page.metrics.baseline.file)
+ * с допуском page.metrics.tolerance.percent, но не меньше page.metrics.tolerance.ms;
+ * превышения отмечаются в отчете. Базовый файл обновляется медианами прогона
+ * при page.metrics.baseline.update=true
+ */
+public final class PageMetrics {
+    private static final Logger logger = LogManager.getLogger(PageMetrics.class);
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final String MILLIS_SUFFIX = "Ms";
+
+    // Замеры текущего теста; null, если поток не выполняет тест
+    private static final ThreadLocal<TestPageMetrics> currentTest = new ThreadLocal<>();
+    // Все замеры прогона: страница -> метрика -> значения
+    private static final Map<String, Map<String, List<Double>>> runValues = new ConcurrentHashMap<>();
+    private static final Map<String, List<String>> runRegressions = new ConcurrentHashMap<>();
+
+    private PageMetrics() {
+        // Утилитарный класс
+    }
+
+    // Базовый файл читается один раз при первом замере
+    private static final class Baseline {
+        private static final Map<String, Map<String, Double>> VALUES = readBaseline(getBaselineFile());
+    }
+
+    public static boolean isEnabled() {
+        return ConfigReader.getInstance().isPageMetricsEnabled();
+    }
+
+    public static void startTest() {
+        currentTest.set(new TestPageMetrics());
+    }
+
+    public static TestPageMetrics finishTest() {
+        TestPageMetrics metrics = currentTest.get();
+        currentTest.remove();
+        return metrics;
+    }
+
+    /**
+     * Регистрирует замер страницы и сравнивает его с базовым
+     *
+     * @return описания превышений; пусто, если регрессий нет или базового замера нет
+     */
+    public static List<String> record(String pageName, Map<String, Double> values) {
+        Map<String, List<Double>> pageValues = runValues.computeIfAbsent(pageName, key -> new ConcurrentHashMap<>());
+        values.forEach((metric, value) -> pageValues
+                .computeIfAbsent(metric, key -> Collections.synchronizedList(new ArrayList<>())).add(value));
+
+        List<String> regressions = compare(pageName, values);
+        if (!regressions.isEmpty()) {
+            runRegressions.computeIfAbsent(pageName, key -> Collections.synchronizedList(new ArrayList<>()))
+                    .addAll(regressions);
+            regressions.forEach(regression -> logger.warn("⏱ Регрессия производительности: {}", regression));
+        }
+        logger.debug("Метрики страницы {}: {}", pageName, values);
+
+        TestPageMetrics test = currentTest.get();
+        if (test != null) {
+            test.add(pageName, values, regressions);
+        }
+        return regressions;
+    }
+
+    /**
+     * Сводный отчет прогона (медианы против базовых значений); при
+     * page.metrics.baseline.update=true медианы сохраняются как новый базовый файл
+     */
+    public static void writeRunReport(Path file) {
+        if (runValues.isEmpty()) {
+            return;
+        }
+        Map<String, Map<String, Double>> medians = new TreeMap<>();
+        runValues.forEach((page, metrics) -> {
+            Map<String, Double> pageMedians = new TreeMap<>();
+            metrics.forEach((metric, values) -> pageMedians.put(metric, median(values)));
+            medians.put(page, pageMedians);
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("baselineFile", getBaselineFile().toString());
+        report.put("medians", medians);
+        report.put("baseline", Baseline.VALUES);
+        report.put("regressions", new TreeMap<>(runRegressions));
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            mapper.writeValue(file.toFile(), report);
+            logger.info("Отчет о метриках страниц сохранен: {}", file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось сохранить отчет о метриках страниц", e);
+        }
+
+        if (ConfigReader.getInstance().isPageMetricsBaselineUpdate()) {
+            updateBaseline(medians);
+        }
+    }
+
+    private static List<String> compare(String pageName, Map<String, Double> values) {
+        Map<String, Double> baseline = Baseline.VALUES.get(pageName);
+        if (baseline == null) {
+            return List.of();
+        }
+        ConfigReader config = ConfigReader.getInstance();
+        double percent = config.getPageMetricsTolerancePercent() / 100.0;
+        double minMillis = config.getPageMetricsToleranceMs();
+
+        List<String> regressions = new ArrayList<>();
+        values.forEach((metric, value) -> {
+            Double expected = baseline.get(metric);
+            if (expected == null) {
+                return;
+            }
+            // Абсолютный допуск только для времен: счетчики и байты сравниваются в процентах
+            double tolerance = Math.max(expected * percent, metric.endsWith(MILLIS_SUFFIX) ? minMillis : 1);
+            if (value > expected + tolerance) {
+                regressions.add(String.format("%s: %s = %.1f при базовом %.1f (допуск %.1f)",
+                        pageName, metric, value, expected, tolerance));
+            }
+        });
+        return regressions;
+    }
+
+    private static void updateBaseline(Map<String, Map<String, Double>> medians) {
+        Path file = getBaselineFile();
+        // Страницы, не открывавшиеся в этом прогоне, сохраняют прежние значения
+        Map<String, Map<String, Double>> updated = new TreeMap<>(readBaseline(file));
+        updated.putAll(medians);
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "page-metrics", ".tmp");
+            mapper.writeValue(temp.toFile(), updated);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Базовые метрики страниц обновлены: {}", file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось обновить базовые метрики страниц " + file, e);
+        }
+    }
+
+    private static Map<String, Map<String, Double>> readBaseline(Path file) {
+        if (!Files.exists(file)) {
+            logger.info("Базовые метрики страниц не найдены ({}); создать: -Dpage.metrics.baseline.update=true",
+                    file);
+            return Map.of();
+        }
+        try {
+            return mapper.readValue(file.toFile(), new TypeReference<Map<String, Map<String, Double>>>() { });
+        } catch (IOException e) {
+            logger.warn("Базовые метрики страниц не прочитаны ({}): {}", file, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private static Path getBaselineFile() {
+        return Paths.get(ConfigReader.getInstance().getPageMetricsBaselineFile());
+    }
+
+    private static double median(List<Double> values) {
+        List<Double> sorted;
+        synchronized (values) {
+            sorted = new ArrayList<>(values);
+        }
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    /**
+     * Замеры страниц одного теста. Заполняются только потоком теста
+     */
+    public static final class TestPageMetrics {
+        private final List<Map<String, Object>> captures = new ArrayList<>();
+        private final List<String> regressions = new ArrayList<>();
+
+        private TestPageMetrics() {
+        }
+
+        private void add(String pageName, Map<String, Double> values, List<String> pageRegressions) {
+            Map<String, Object> capture = new LinkedHashMap<>();
+            capture.put("page", pageName);
+            capture.put("metrics", values);
+            capture.put("regressions", pageRegressions);
+            captures.add(capture);
+            regressions.addAll(pageRegressions);
+        }
+
+        public boolean isEmpty() {
+            return captures.isEmpty();
+        }
+
+        public List<String> getRegressions() {
+            return regressions;
+        }
+
+        public String toJson() {
+            try {
+                return mapper.writeValueAsString(captures);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Не удалось сериализовать метрики страниц", e);
+            }
+        }
+    }
+}
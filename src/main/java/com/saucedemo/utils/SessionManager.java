@@ -0,0 +1,147 @@
+package com.saucedemo.utils;
+
+import com.saucedemo.constants.Constants;
+import com.saucedemo.pages.LoginPage;
+import com.saucedemo.pages.ProductsPage;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Подготовка авторизованной сессии без прохождения UI логина.
+ * Первый вызов для пользователя и пароля выполняет обычный логин через
+ * LoginPage и запоминает сессионные cookies; последующие вызовы только подставляют их в браузер
+ * и сразу открывают страницу продуктов.
+ * UI логин как сценарий проверяется только в LoginTests.
+ */
+public class SessionManager {
+    private static final Logger logger = LogManager.getLogger(SessionManager.class);
+    // Кэш cookies авторизованной сессии по пользователю и паролю
+    private static final Map<SessionKey, Set<Cookie>> sessionCache = new ConcurrentHashMap<>();
+
+    private SessionManager() {
+        // Утилитарный класс
+    }
+
+    /**
+     * Открывает страницу продуктов от имени пользователя с паролем по умолчанию
+     */
+    public static ProductsPage loginAs(WebDriver driver, String username) {
+        return loginAs(driver, username, Constants.STANDARD_PASSWORD);
+    }
+
+    /**
+     * Открывает страницу продуктов от имени пользователя
+     */
+    public static ProductsPage loginAs(WebDriver driver, String username, String password) {
+        SessionKey key = SessionKey.of(username, password);
+        Set<Cookie> cookies = sessionCache.get(key);
+        if (cookies == null || isExpired(cookies)) {
+            cookies = loginThroughUi(driver, username, password);
+            sessionCache.put(key, cookies);
+            return new ProductsPage(driver);
+        }
+
+        injectCookies(driver, cookies);
+        driver.get(Constants.PRODUCTS_PAGE_URL);
+        logger.info("Открыта авторизованная сессия для пользователя: {}", username);
+        return new ProductsPage(driver);
+    }
+
+    /**
+     * Сбрасывает кэш сессий (например, после смены пароля или окружения)
+     */
+    public static void clearCache() {
+        sessionCache.clear();
+    }
+
+    /**
+     * Ключ кэша: сессия, полученная с другим паролем, не переиспользуется.
+     * Стенд в ключ не входит - base.url один на JVM, кэш живет не дольше нее.
+     * Пароль хранится только в виде SHA-256
+     */
+    private record SessionKey(String username, String passwordHash) {
+
+        static SessionKey of(String username, String password) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256")
+                        .digest(password.getBytes(StandardCharsets.UTF_8));
+                return new SessionKey(username, HexFormat.of().formatHex(hash));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 недоступен", e);
+            }
+        }
+    }
+
+    /**
+     * SauceDemo выдает cookie сессии с ограниченным сроком жизни
+     */
+    private static boolean isExpired(Set<Cookie> cookies) {
+        Date now = new Date();
+        return cookies.stream()
+                .anyMatch(cookie -> cookie.getExpiry() != null && cookie.getExpiry().before(now));
+    }
+
+    private static Set<Cookie> loginThroughUi(WebDriver driver, String username, String password) {
+        LoginPage loginPage = new LoginPage(driver);
+        loginPage.open(Constants.LOGIN_PAGE_URL);
+        loginPage.login(username, password);
+
+        String currentUrl = driver.getCurrentUrl();
+        if (currentUrl == null || !currentUrl.startsWith(Constants.PRODUCTS_PAGE_URL)) {
+            throw new RuntimeException("Не удалось авторизоваться пользователем " + username
+                    + ", текущий URL: " + currentUrl);
+        }
+
+        Set<Cookie> cookies = driver.manage().getCookies();
+        logger.info("Сессия пользователя {} сохранена в кэш ({} cookies)", username, cookies.size());
+        return cookies;
+    }
+
+    /**
+     * Через CDP cookies устанавливаются без предварительной загрузки страницы логина.
+     * Для остальных драйверов нужен переход на домен приложения.
+     */
+    private static void injectCookies(WebDriver driver, Set<Cookie> cookies) {
+        if (driver instanceof HasCdp) {
+            HasCdp cdp = (HasCdp) driver;
+            for (Cookie cookie : cookies) {
+                cdp.executeCdpCommand("Network.setCookie", toCdpCookie(cookie));
+            }
+            return;
+        }
+
+        driver.get(Constants.LOGIN_PAGE_URL);
+        for (Cookie cookie : cookies) {
+            driver.manage().addCookie(cookie);
+        }
+    }
+
+    private static Map<String, Object> toCdpCookie(Cookie cookie) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("url", Constants.BASE_URL);
+        params.put("name", cookie.getName());
+        params.put("value", cookie.getValue());
+        if (cookie.getPath() != null) {
+            params.put("path", cookie.getPath());
+        }
+        params.put("secure", cookie.isSecure());
+        params.put("httpOnly", cookie.isHttpOnly());
+        if (cookie.getExpiry() != null) {
+            params.put("expires", cookie.getExpiry().getTime() / 1000);
+        }
+        return params;
+    }
+}
@@ -0,0 +1,146 @@
+package com.saucedemo.processor;
+
+import com.saucedemo.pages.LoginPage;
+import com.saucedemo.pages.PageLocators;
+import com.saucedemo.pages.ProductsPage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Генерация локаторов страниц при компиляции")
+public class PageLocatorProcessorTest {
+
+    @TempDir
+    Path generated;
+
+    static Stream<Arguments> invalidLocators() {
+        return Stream.of(
+                Arguments.of("две стратегии",
+                        "@FindBy(id = \"user\", name = \"user\") WebElement field;", "ровно одну стратегию"),
+                Arguments.of("некорректный XPath",
+                        "@FindBy(xpath = \"//div[\") WebElement field;", "ошибка XPath"),
+                Arguments.of("незакрытая скобка CSS",
+                        "@FindBy(css = \"input[name='user'\") WebElement field;", "незакрытая скобка"),
+                Arguments.of("незакрытая кавычка CSS",
+                        "@FindBy(css = \"input[name='user]\") WebElement field;", "незакрытая кавычка"),
+                Arguments.of("составной className",
+                        "@FindBy(className = \"btn primary\") WebElement field;", "составные имена"),
+                Arguments.of("пустое значение",
+                        "@FindBy(id = \" \") WebElement field;", "пустое значение"),
+                Arguments.of("private поле",
+                        "@FindBy(id = \"user\") private WebElement field;", "не private"),
+                Arguments.of("@FindBys",
+                        "@org.openqa.selenium.support.FindBys({@FindBy(id = \"a\")}) WebElement field;",
+                        "@FindBys/@FindAll"));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("invalidLocators")
+    @DisplayName("Некорректный локатор ломает сборку")
+    public void testInvalidLocatorFailsBuild(String caseName, String field, String expectedError) throws Exception {
+        Result result = compile(field);
+        assertFalse(result.success(), caseName + ": сборка должна упасть");
+        assertTrue(result.errors().contains(expectedError),
+                caseName + ": ожидалась ошибка '" + expectedError + "', получено: " + result.errors());
+    }
+
+    @Test
+    @DisplayName("Корректные локаторы генерируют класс Locators")
+    public void testValidPageGeneratesLocators() throws Exception {
+        Result result = compile("""
+                @FindBy(id = "user-name") WebElement usernameInput;
+                @FindBy(css = "div[data-test=\\"item\\"] > a") java.util.List<WebElement> itemLinks;
+                """);
+        assertTrue(result.success(), "Сборка должна пройти: " + result.errors());
+
+        String source = Files.readString(generated.resolve("sample/SamplePageLocators.java"));
+        assertTrue(source.contains("USERNAME_INPUT = By.id(\"user-name\")"), source);
+        assertTrue(source.contains("ITEM_LINKS = By.cssSelector(\"div[data-test=\\\"item\\\"] > a\")"), source);
+        assertTrue(source.contains("page.itemLinks = binder.elements(ITEM_LINKS)"), source);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(classes = {LoginPage.class, ProductsPage.class})
+    @DisplayName("Для страниц проекта локаторы сгенерированы при сборке")
+    public void testProjectPagesHaveGeneratedLocators(Class<?> pageClass) throws Exception {
+        // Без сгенерированного класса BasePage молча откатывается на PageFactory
+        Class<?> locators = Class.forName(pageClass.getName() + PageLocators.SUFFIX);
+        assertTrue(PageLocators.class.isAssignableFrom(locators), locators.getName());
+    }
+
+    /**
+     * Запускает процессор на странице sample.SamplePage с указанными полями (без генерации байткода)
+     */
+    private Result compile(String fields) throws IOException, URISyntaxException {
+        String source = """
+                package sample;
+
+                import org.openqa.selenium.WebElement;
+                import org.openqa.selenium.support.FindBy;
+
+                public class SamplePage {
+                %s
+                }
+                """.formatted(fields);
+        JavaFileObject page = new SimpleJavaFileObject(URI.create("string:///sample/SamplePage.java"),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null,
+                StandardCharsets.UTF_8)) {
+            // Сгенерированный код ссылается на Selenium и на PageLocators/PageElementBinder
+            files.setLocationFromPaths(StandardLocation.CLASS_PATH, List.of(codeSource(FindBy.class),
+                    codeSource(WebElement.class), codeSource(PageLocatorProcessor.class)));
+            files.setLocationFromPaths(StandardLocation.SOURCE_OUTPUT, List.of(generated));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics,
+                    List.of("-proc:only"), null, List.of(page));
+            task.setProcessors(List.of(new PageLocatorProcessor()));
+            boolean success = task.call();
+            String errors = diagnostics.getDiagnostics().stream()
+                    .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                    .map(diagnostic -> diagnostic.getMessage(null))
+                    .collect(Collectors.joining("\n"));
+            return new Result(success, errors);
+        }
+    }
+
+    private static Path codeSource(Class<?> type) throws URISyntaxException {
+        return Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI());
+    }
+
+    private record Result(boolean success, String errors) {
+    }
+}
@@ -1,8 +1,18 @@
 package com.saucedemo.tests;
 
+import com.saucedemo.utils.BlockedResourcesExtension;
+import com.saucedemo.utils.BrowserProcessExtension;
+import com.saucedemo.utils.PageMetricsExtension;
+import com.saucedemo.utils.PerformanceBudgetExtension;
+import com.saucedemo.utils.TestListener;
+import com.saucedemo.utils.TestLogExtension;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+// TestLogExtension - первым: его TestWatcher вызывается последним и закрывает лог теста
+@ExtendWith({TestLogExtension.class, TestListener.class, PerformanceBudgetExtension.class,
+        PageMetricsExtension.class, BlockedResourcesExtension.class, BrowserProcessExtension.class})
 public abstract class BaseTest {
     
     @BeforeEach
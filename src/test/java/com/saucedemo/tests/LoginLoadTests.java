@@ -0,0 +1,55 @@
+package com.saucedemo.tests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saucedemo.utils.AttachmentStore;
+import com.saucedemo.utils.ConfigReader;
+import com.saucedemo.utils.LoginLoadRunner;
+import com.saucedemo.utils.TestLogExtension;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Нагрузочный прогон сценария логина. Не наследует BaseTest: виртуальные пользователи
+ * сами управляют своими браузерами, а бюджет времени одного теста к нагрузке не применим.
+ * Запуск: mvn test -Dconfig.profile=load -Dload.enabled=true -Dtest=LoginLoadTests
+ * (load.enabled можно задать любым слоем конфигурации, например SAUCEDEMO_LOAD_ENABLED=true)
+ */
+@Tag("load")
+@Epic("Авторизация пользователя")
+@Feature("Нагрузка на логин")
+@DisplayName("Нагрузочный тест авторизации на SauceDemo")
+@ExtendWith(TestLogExtension.class)
+@EnabledIf("isLoadEnabled")
+public class LoginLoadTests {
+
+    static boolean isLoadEnabled() {
+        return ConfigReader.getInstance().isLoadEnabled();
+    }
+
+    @Test
+    @DisplayName("Параллельный логин performance_glitch_user")
+    @Description("Виртуальные пользователи проходят логин -> страница продуктов; "
+            + "в отчет попадают пропускная способность и p50/p95/p99 по шагам")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Тестирование производительности")
+    public void testConcurrentLoginThroughput() throws Exception {
+        String report = LoginLoadRunner.fromConfig().run();
+        AttachmentStore.attach("Нагрузка на логин", "application/json", report, ".json");
+
+        JsonNode result = new ObjectMapper().readTree(report);
+        assertTrue(result.path("iterations").asLong() > 0, "Не выполнено ни одной итерации логина");
+        assertEquals(0, result.path("errors").asLong(), "Ошибки при нагрузке на логин");
+    }
+}
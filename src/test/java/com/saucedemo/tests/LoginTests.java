@@ -16,7 +16,7 @@ import static org.junit.jupiter.api.Assertions.*;
 @Epic("Авторизация пользователя")
 @Feature("Функциональность логина")
 @DisplayName("Тесты авторизации на SauceDemo")
-public class LoginTests {
+public class LoginTests extends BaseTest {
     
     // Пока используем заглушки для компиляции
     private LoginPage loginPage;
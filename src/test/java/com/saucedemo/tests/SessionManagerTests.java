@@ -0,0 +1,64 @@
+package com.saucedemo.tests;
+
+import com.saucedemo.constants.Constants;
+import com.saucedemo.pages.ProductsPage;
+import com.saucedemo.utils.ConfigReader;
+import com.saucedemo.utils.DriverManager;
+import com.saucedemo.utils.LocalSauceDemoServer;
+import com.saucedemo.utils.SessionManager;
+import io.qameta.allure.Description;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Severity;
+import io.qameta.allure.SeverityLevel;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.openqa.selenium.WebDriver;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Переиспользование авторизованной сессии. Только на локальном сервере-заглушке:
+ * по его счетчику запросов видно, что страница логина повторно не загружается.
+ * Запуск: mvn test -Dconfig.profile=local-stub -Dtest=SessionManagerTests
+ */
+@Epic("Авторизация пользователя")
+@Feature("Переиспользование сессии")
+@DisplayName("Авторизованная сессия без UI логина")
+@EnabledIf("isLocalStub")
+public class SessionManagerTests extends BaseTest {
+
+    static boolean isLocalStub() {
+        String baseUrl = ConfigReader.getInstance().getProperty("base.url");
+        return LocalSauceDemoServer.LOCAL_URL_ALIAS.equalsIgnoreCase(baseUrl);
+    }
+
+    @Test
+    @DisplayName("Повторный loginAs подставляет cookies и сразу открывает страницу продуктов")
+    @Description("Первый вызов проходит UI логин, второй - в браузере без cookies - "
+            + "не загружает страницу логина и попадает на страницу продуктов")
+    @Severity(SeverityLevel.NORMAL)
+    @Story("Кэш сессий")
+    public void testSecondLoginSkipsUiLogin() {
+        LocalSauceDemoServer server = LocalSauceDemoServer.getInstance();
+        WebDriver driver = DriverManager.getDriver();
+        SessionManager.clearCache();
+
+        SessionManager.loginAs(driver, "standard_user");
+        assertTrue(driver.getCurrentUrl().startsWith(Constants.PRODUCTS_PAGE_URL), "Первый вход через UI");
+
+        // Без cookies защищенная страница вернула бы на логин
+        driver.manage().deleteAllCookies();
+        int loginPageRequests = server.getRequestCount("/index.html");
+
+        ProductsPage productsPage = SessionManager.loginAs(driver, "standard_user");
+
+        assertTrue(driver.getCurrentUrl().startsWith(Constants.PRODUCTS_PAGE_URL),
+                "Ожидалась страница продуктов, текущий URL: " + driver.getCurrentUrl());
+        assertTrue(productsPage.isProductsPageDisplayed(), "Страница продуктов не отображается");
+        assertEquals(loginPageRequests, server.getRequestCount("/index.html"),
+                "Повторный вход не должен загружать страницу логина");
+    }
+}
@@ -0,0 +1,142 @@
+package com.saucedemo.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Объединение allure-results нескольких шардов в один каталог для общего отчета.
+ * Повторные запуски одного теста (одинаковый historyId) схлопываются в последний
+ * по времени окончания; вложения переносятся только для оставшихся результатов.
+ * Запуск: mvn -Pallure-merge test-compile exec:java allure:report
+ */
+public final class AllureResultsMerger {
+    private static final Logger logger = LogManager.getLogger(AllureResultsMerger.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final String RESULT_SUFFIX = "-result.json";
+    private static final String CONTAINER_SUFFIX = "-container.json";
+    private static final String ATTACHMENT_MARKER = "-attachment";
+
+    private AllureResultsMerger() {
+        // Утилитарный класс
+    }
+
+    /**
+     * @param args каталог с результатами шардов (просматривается с подкаталогами) и целевой каталог
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Использование: AllureResultsMerger <каталог шардов> <целевой каталог>");
+        }
+        merge(Paths.get(args[0]), Paths.get(args[1]));
+    }
+
+    public static void merge(Path source, Path target) {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(source)) {
+            files = walk.filter(Files::isRegularFile).toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось прочитать результаты шардов из " + source, e);
+        }
+
+        // Последний запуск каждого теста по historyId
+        Map<String, JsonNode> latest = new HashMap<>();
+        Map<String, Path> latestFiles = new HashMap<>();
+        int results = 0;
+        for (Path file : files) {
+            if (!file.getFileName().toString().endsWith(RESULT_SUFFIX)) {
+                continue;
+            }
+            results++;
+            JsonNode result = read(file);
+            if (result == null) {
+                continue;
+            }
+            String id = result.hasNonNull("historyId") ? result.path("historyId").asText()
+                    : result.path("fullName").asText(result.path("uuid").asText());
+            JsonNode current = latest.get(id);
+            if (current == null || result.path("stop").asLong() > current.path("stop").asLong()) {
+                latest.put(id, result);
+                latestFiles.put(id, file);
+            }
+        }
+
+        Set<String> attachments = new HashSet<>();
+        latest.values().forEach(result -> collectAttachments(result, attachments));
+        // Контейнеры копируются все - их фикстуры (befores/afters) тоже ссылаются на вложения
+        files.stream().filter(file -> file.getFileName().toString().endsWith(CONTAINER_SUFFIX))
+                .map(AllureResultsMerger::read)
+                .filter(Objects::nonNull)
+                .forEach(container -> collectAttachments(container, attachments));
+
+        try {
+            Files.createDirectories(target);
+            for (Path file : latestFiles.values()) {
+                copy(file, target);
+            }
+            Set<String> copiedOther = new HashSet<>();
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(RESULT_SUFFIX)) {
+                    continue;
+                }
+                if (name.contains(ATTACHMENT_MARKER)) {
+                    if (attachments.contains(name)) {
+                        copy(file, target);
+                    }
+                } else if (name.endsWith(CONTAINER_SUFFIX) || copiedOther.add(name)) {
+                    // Контейнеры уникальны по uuid; environment/categories/executor берутся из первого шарда
+                    copy(file, target);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Не удалось записать объединенные результаты в " + target, e);
+        }
+
+        logger.info("Объединено результатов Allure: {} из {} (повторы отброшены), вложений: {}, каталог: {}",
+                latest.size(), results, attachments.size(), target);
+    }
+
+    /**
+     * Вложения теста (или контейнера с его befores/afters) и всех шагов
+     */
+    static void collectAttachments(JsonNode node, Set<String> attachments) {
+        for (JsonNode attachment : node.path("attachments")) {
+            attachments.add(attachment.path("source").asText());
+        }
+        for (String children : new String[] {"steps", "befores", "afters"}) {
+            for (JsonNode child : node.path(children)) {
+                collectAttachments(child, attachments);
+            }
+        }
+    }
+
+    private static JsonNode read(Path file) {
+        try {
+            return mapper.readTree(file.toFile());
+        } catch (IOException e) {
+            logger.warn("Пропущен поврежденный результат {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void copy(Path file, Path target) throws IOException {
+        Files.copy(file, target.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
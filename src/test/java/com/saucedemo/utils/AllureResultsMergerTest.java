@@ -0,0 +1,59 @@
+package com.saucedemo.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Объединение результатов Allure шардов")
+public class AllureResultsMergerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Повторы теста схлопываются в последний запуск вместе с его вложениями")
+    public void testRetriesAreMergedIntoLatestRun() throws IOException {
+        Path shards = directory.resolve("shards");
+        Path first = Files.createDirectories(shards.resolve("shard-0"));
+        Path second = Files.createDirectories(shards.resolve("shard-1"));
+
+        result(first, "failed", "login", 100, "failed-attachment.png");
+        result(second, "retried", "login", 200, "retried-attachment.png");
+        result(second, "other", "logout", 150, "shared-attachment.txt");
+        Files.writeString(first.resolve("failed-attachment.png"), "png");
+        Files.writeString(second.resolve("retried-attachment.png"), "png");
+        Files.writeString(second.resolve("shared-attachment.txt"), "log");
+        Files.writeString(first.resolve("setup-container.json"),
+                "{\"befores\": [{\"attachments\": [{\"source\": \"fixture-attachment.txt\"}]}]}");
+        Files.writeString(first.resolve("fixture-attachment.txt"), "fixture");
+        Files.writeString(first.resolve("environment.properties"), "shard=0");
+        Files.writeString(second.resolve("environment.properties"), "shard=1");
+
+        Path merged = directory.resolve("merged");
+        AllureResultsMerger.merge(shards, merged);
+
+        assertTrue(Files.exists(merged.resolve("retried-result.json")), "Последний запуск теста");
+        assertFalse(Files.exists(merged.resolve("failed-result.json")), "Ранний запуск отброшен");
+        assertFalse(Files.exists(merged.resolve("failed-attachment.png")), "Вложение отброшенного запуска");
+        assertTrue(Files.exists(merged.resolve("retried-attachment.png")));
+        assertTrue(Files.exists(merged.resolve("other-result.json")));
+        assertTrue(Files.exists(merged.resolve("shared-attachment.txt")));
+        assertTrue(Files.exists(merged.resolve("setup-container.json")));
+        assertTrue(Files.exists(merged.resolve("fixture-attachment.txt")), "Вложение фикстуры контейнера");
+        assertTrue(Files.exists(merged.resolve("environment.properties")));
+    }
+
+    private static void result(Path shard, String uuid, String historyId, long stop, String attachment)
+            throws IOException {
+        Files.writeString(shard.resolve(uuid + "-result.json"), """
+                {"uuid": "%s", "historyId": "%s", "stop": %d, "attachments": [{"source": "%s"}]}
+                """.formatted(uuid, historyId, stop, attachment));
+    }
+}
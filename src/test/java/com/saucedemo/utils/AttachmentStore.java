@@ -0,0 +1,418 @@
+package com.saucedemo.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Attachment;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Хранилище вложений Allure с адресацией по содержимому.
+ * Имя файла - SHA-256 исходных данных (&lt;hash&gt;-attachment.ext), поэтому одинаковые
+ * скриншоты и логи многих упавших тестов записываются один раз, а результаты ссылаются
+ * на общий файл. Текстовые вложения больше attachments.gzip.threshold.kb сжимаются gzip
+ * (по умолчанию выключено: сжатое вложение Allure показывает только как файл для скачивания).
+ * Если файл не удалось записать, ссылки на него убираются из всех результатов,
+ * которым вложение было выдано, пока шла запись.
+ * В конце прогона prune() удаляет результаты старше attachments.max.age.days и самые старые
+ * результаты сверх attachments.max.size.mb вложений - вместе с вложениями, на которые
+ * больше никто не ссылается
+ */
+public final class AttachmentStore {
+    private static final Logger logger = LogManager.getLogger(AttachmentStore.class);
+    private static final String ATTACHMENT_SUFFIX = "-attachment";
+    private static final String GZIP_TYPE = "application/gzip";
+    private static final String GZIP_EXTENSION = ".gz";
+    private static final String RESULT_SUFFIX = "-result.json";
+    private static final String CONTAINER_SUFFIX = "-container.json";
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final Instant RUN_STARTED = Instant.now();
+
+    // Вложения, уже записанные или записываемые в этом прогоне
+    private static final Set<String> claimed = ConcurrentHashMap.newKeySet();
+    // Вложения, запись которых еще не завершена, и результаты, которые на них уже ссылаются
+    private static final Map<String, List<Registration>> inFlight = new ConcurrentHashMap<>();
+
+    private AttachmentStore() {
+        // Утилитарный класс
+    }
+
+    /**
+     * Место вложения в хранилище
+     *
+     * @param write true - файла еще нет, его должен записать вызывающий
+     */
+    public record Target(String source, String type, boolean gzip, boolean write) {
+    }
+
+    private record Registration(AllureLifecycle lifecycle, String testUuid) {
+    }
+
+    /**
+     * Прикладывает текстовое вложение к текущему тесту; запись выполняется сразу
+     */
+    public static void attach(String name, String type, String content, String extension) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        Target target = prepare(bytes, type, extension);
+        if (target.write()) {
+            write(target, bytes);
+        }
+        Allure.getLifecycle().updateTestCase(result -> result.getAttachments().add(attachment(name, target)));
+    }
+
+    /**
+     * Регистрирует вложение в результате теста testUuid. Пока файл записывается, ссылка
+     * запоминается, чтобы убрать ее при ошибке записи (abandon)
+     */
+    public static void register(AllureLifecycle lifecycle, String testUuid, String name, Target target) {
+        boolean tracked = inFlight.computeIfPresent(target.source(), (source, registrations) -> {
+            lifecycle.updateTestCase(testUuid, result -> result.getAttachments().add(attachment(name, target)));
+            registrations.add(new Registration(lifecycle, testUuid));
+            return registrations;
+        }) != null;
+        if (tracked) {
+            return;
+        }
+        if (!Files.exists(getResultsDirectory().resolve(target.source()))) {
+            logger.warn("Вложение '{}' не записано ({}) - не прикладывается", name, target.source());
+            return;
+        }
+        lifecycle.updateTestCase(testUuid, result -> result.getAttachments().add(attachment(name, target)));
+    }
+
+    /**
+     * Определяет имя вложения по исходным данным key. Содержимое файла может быть
+     * производным от key (например, сжатый скриншот) - оно однозначно определяется key
+     */
+    public static Target prepare(byte[] key, String type, String extension) {
+        boolean gzip = isText(type) && key.length >= getGzipThresholdBytes();
+        String source = sha256(key, type) + ATTACHMENT_SUFFIX + extension + (gzip ? GZIP_EXTENSION : "");
+        boolean write = claimed.add(source) && !touchExisting(source);
+        if (write) {
+            inFlight.put(source, new CopyOnWriteArrayList<>());
+        }
+        return new Target(source, gzip ? GZIP_TYPE : type, gzip, write);
+    }
+
+    /**
+     * Записывает содержимое вложения (через временный файл, чтобы отчет не увидел его наполовину)
+     */
+    public static void write(Target target, byte[] content) {
+        Path file = getResultsDirectory().resolve(target.source());
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), target.source(), ".tmp");
+            Files.write(temp, target.gzip() ? gzip(content) : content);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            abandon(target);
+            throw new UncheckedIOException("Не удалось записать вложение " + file, e);
+        }
+        inFlight.remove(target.source());
+    }
+
+    /**
+     * Вложение не будет записано (ошибка подготовки содержимого или записи):
+     * ссылки на него убираются из всех результатов, которым оно было выдано
+     */
+    public static void abandon(Target target) {
+        claimed.remove(target.source());
+        List<Registration> registrations = inFlight.remove(target.source());
+        if (registrations == null) {
+            return;
+        }
+        for (Registration registration : registrations) {
+            detach(registration, target.source());
+        }
+    }
+
+    /**
+     * Пока тест не завершен, результат правится в памяти Allure; уже записанный результат - в файле
+     */
+    private static void detach(Registration registration, String source) {
+        Path resultFile = getResultsDirectory().resolve(registration.testUuid() + RESULT_SUFFIX);
+        if (!Files.exists(resultFile)) {
+            registration.lifecycle().updateTestCase(registration.testUuid(),
+                    result -> result.getAttachments().removeIf(attachment -> source.equals(attachment.getSource())));
+        }
+        if (!Files.exists(resultFile)) {
+            return;
+        }
+        try {
+            JsonNode result = mapper.readTree(resultFile.toFile());
+            if (result.path("attachments") instanceof ArrayNode attachments) {
+                for (int i = attachments.size() - 1; i >= 0; i--) {
+                    if (source.equals(attachments.get(i).path("source").asText())) {
+                        attachments.remove(i);
+                    }
+                }
+                mapper.writeValue(resultFile.toFile(), result);
+            }
+        } catch (IOException e) {
+            logger.warn("Не удалось убрать вложение {} из {}: {}", source, resultFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Очистка каталога результатов по возрасту и суммарному размеру вложений.
+     * Удаляются результаты и контейнеры целиком; вложение удаляется, только когда
+     * на него не ссылается ни один оставшийся результат, иначе в отчете остались бы
+     * битые ссылки. Файлы текущего прогона не удаляются
+     */
+    public static void prune() {
+        ConfigReader config = ConfigReader.getInstance();
+        prune(getResultsDirectory(), config.getAttachmentsMaxAgeDays(), config.getAttachmentsMaxSizeMb(),
+                RUN_STARTED);
+    }
+
+    /**
+     * @param runStarted файлы, измененные не раньше этого момента, считаются файлами текущего прогона
+     */
+    static void prune(Path directory, int maxAgeDays, int maxSizeMb, Instant runStarted) {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(Files::isRegularFile).toList();
+        } catch (IOException e) {
+            logger.warn("Не удалось прочитать каталог вложений {}: {}", directory, e.getMessage());
+            return;
+        }
+
+        // Результаты и контейнеры с их вложениями; остальные файлы (environment, categories) не трогаем
+        Map<Path, Set<String>> owners = new HashMap<>();
+        Map<String, Path> attachments = new HashMap<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.contains(ATTACHMENT_SUFFIX)) {
+                attachments.put(name, file);
+            } else if (name.endsWith(RESULT_SUFFIX) || name.endsWith(CONTAINER_SUFFIX)) {
+                owners.put(file, references(file));
+            }
+        }
+        Pruning pruning = new Pruning(attachments, owners, runStarted);
+
+        Instant cutoff = maxAgeDays > 0 ? runStarted.minus(Duration.ofDays(maxAgeDays)) : Instant.MIN;
+        List<Path> oldestFirst = new ArrayList<>(owners.keySet());
+        oldestFirst.sort(Comparator.comparing(AttachmentStore::modified));
+        List<Path> kept = new ArrayList<>();
+        for (Path owner : oldestFirst) {
+            if (modified(owner).isBefore(cutoff)) {
+                pruning.removeOwner(owner);
+            } else {
+                kept.add(owner);
+            }
+        }
+        pruning.removeUnreferenced();
+
+        long maxBytes = maxSizeMb * 1024L * 1024L;
+        if (maxBytes > 0) {
+            for (Path owner : kept) {
+                if (pruning.attachmentBytes <= maxBytes || !modified(owner).isBefore(runStarted)) {
+                    break;
+                }
+                pruning.removeOwner(owner);
+            }
+        }
+
+        if (pruning.deleted > 0) {
+            logger.info("Очистка {}: удалено файлов {}, освобождено {} КБ",
+                    directory, pruning.deleted, pruning.freed / 1024);
+        }
+    }
+
+    /**
+     * Вложения, на которые ссылается результат или контейнер
+     */
+    private static Set<String> references(Path file) {
+        Set<String> sources = new HashSet<>();
+        try {
+            AllureResultsMerger.collectAttachments(mapper.readTree(file.toFile()), sources);
+        } catch (IOException e) {
+            logger.debug("Не удалось прочитать {}: {}", file, e.getMessage());
+        }
+        return sources;
+    }
+
+    private static Attachment attachment(String name, Target target) {
+        return new Attachment()
+                .setName(target.gzip() ? name + " (gzip)" : name)
+                .setType(target.type())
+                .setSource(target.source());
+    }
+
+    /**
+     * Файл уже есть с прошлых прогонов - обновляем время, чтобы очистка по возрасту его не удалила
+     */
+    private static boolean touchExisting(String source) {
+        Path file = getResultsDirectory().resolve(source);
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+        } catch (IOException e) {
+            logger.debug("Не удалось обновить время вложения {}: {}", file, e.getMessage());
+        }
+        return true;
+    }
+
+    private static boolean isText(String type) {
+        return type.startsWith("text/") || type.endsWith("json") || type.endsWith("xml");
+    }
+
+    private static long getGzipThresholdBytes() {
+        int thresholdKb = ConfigReader.getInstance().getAttachmentsGzipThresholdKb();
+        return thresholdKb > 0 ? thresholdKb * 1024L : Long.MAX_VALUE;
+    }
+
+    private static String sha256(byte[] content, String type) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            // Тип входит в ключ: одни и те же байты как PNG и как текст - разные вложения
+            digest.update(type.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+
+    private static Path getResultsDirectory() {
+        return Paths.get(System.getProperty("allure.results.directory", "allure-results"));
+    }
+
+    private static Instant modified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant();
+        } catch (IOException e) {
+            return Instant.now();
+        }
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Состояние очистки: счетчики ссылок на вложения и освобожденный объем
+     */
+    private static final class Pruning {
+        private final Map<String, Path> attachments;
+        private final Map<Path, Set<String>> owners;
+        private final Map<String, Integer> referenceCounts = new HashMap<>();
+        private final Instant runStarted;
+        private long attachmentBytes;
+        private int deleted;
+        private long freed;
+
+        private Pruning(Map<String, Path> attachments, Map<Path, Set<String>> owners, Instant runStarted) {
+            this.attachments = new HashMap<>(attachments);
+            this.owners = owners;
+            this.runStarted = runStarted;
+            owners.values().forEach(sources ->
+                    sources.forEach(source -> referenceCounts.merge(source, 1, Integer::sum)));
+            attachments.values().forEach(file -> attachmentBytes += size(file));
+        }
+
+        /**
+         * Удаляет результат и вложения, на которые больше никто не ссылается
+         */
+        private void removeOwner(Path owner) {
+            if (!deleteCounted(owner)) {
+                return;
+            }
+            for (String source : owners.get(owner)) {
+                if (referenceCounts.merge(source, -1, Integer::sum) <= 0) {
+                    referenceCounts.remove(source);
+                    removeAttachment(source);
+                }
+            }
+        }
+
+        /**
+         * Вложения без ссылок: их результаты уже удалены
+         */
+        private void removeUnreferenced() {
+            for (String source : new ArrayList<>(attachments.keySet())) {
+                if (!referenceCounts.containsKey(source)) {
+                    removeAttachment(source);
+                }
+            }
+        }
+
+        private void removeAttachment(String source) {
+            Path file = attachments.get(source);
+            // Вложения этого прогона могут ждать записи результата
+            if (file == null || !modified(file).isBefore(runStarted)) {
+                return;
+            }
+            long size = size(file);
+            if (deleteCounted(file)) {
+                attachments.remove(source);
+                attachmentBytes -= size;
+            }
+        }
+
+        private boolean deleteCounted(Path file) {
+            long size = size(file);
+            if (!delete(file)) {
+                return false;
+            }
+            deleted++;
+            freed += size;
+            return true;
+        }
+    }
+
+    private static boolean delete(Path file) {
+        try {
+            return Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.debug("Не удалось удалить {}: {}", file, e.getMessage());
+            return false;
+        }
+    }
+}
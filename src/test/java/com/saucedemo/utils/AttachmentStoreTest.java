@@ -0,0 +1,97 @@
+package com.saucedemo.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Очистка каталога результатов Allure")
+public class AttachmentStoreTest {
+    private static final Instant RUN_STARTED = Instant.now();
+
+    @TempDir
+    Path results;
+
+    @Test
+    @DisplayName("По возрасту удаляются старые результаты, общее вложение остается")
+    public void testPruneByAgeKeepsSharedAttachment() throws IOException {
+        attachment("shared-attachment.txt", 10, 20);
+        attachment("old-attachment.txt", 10, 20);
+        attachment("fixture-attachment.txt", 10, 20);
+        attachment("orphan-attachment.txt", 10, 20);
+        result("old", 20, "shared-attachment.txt", "old-attachment.txt");
+        result("recent", 5, "shared-attachment.txt");
+        result("latest", 1, "shared-attachment.txt");
+        file("old-container.json", "{\"befores\": [{\"attachments\": [{\"source\": \"fixture-attachment.txt\"}]}]}", 20);
+        file("environment.properties", "browser=chrome", 20);
+        // Вложение текущего прогона, результат которого еще не записан
+        file("current-attachment.txt", "x", -1);
+
+        AttachmentStore.prune(results, 14, 0, RUN_STARTED);
+
+        assertDeleted("old-result.json", "old-attachment.txt", "old-container.json", "fixture-attachment.txt",
+                "orphan-attachment.txt");
+        assertKept("recent-result.json", "latest-result.json", "shared-attachment.txt", "environment.properties",
+                "current-attachment.txt");
+    }
+
+    @Test
+    @DisplayName("По объему удаляются самые старые результаты, пока вложения не уложатся в лимит")
+    public void testPruneBySizeRemovesOldestFirst() throws IOException {
+        int size = 600 * 1024;
+        attachment("first-attachment.bin", size, 3);
+        attachment("second-attachment.bin", size, 2);
+        attachment("shared-attachment.txt", 10, 3);
+        result("first", 3, "first-attachment.bin", "shared-attachment.txt");
+        result("second", 2, "second-attachment.bin", "shared-attachment.txt");
+        result("third", 1, "shared-attachment.txt");
+
+        AttachmentStore.prune(results, 0, 1, RUN_STARTED);
+
+        assertDeleted("first-result.json", "first-attachment.bin");
+        assertKept("second-result.json", "second-attachment.bin", "third-result.json", "shared-attachment.txt");
+    }
+
+    private void result(String uuid, int ageDays, String... attachments) throws IOException {
+        String sources = Arrays.stream(attachments)
+                .map(source -> "{\"source\": \"" + source + "\"}")
+                .collect(Collectors.joining(", "));
+        file(uuid + "-result.json", "{\"uuid\": \"" + uuid + "\", \"attachments\": [" + sources + "]}", ageDays);
+    }
+
+    private void attachment(String name, int size, int ageDays) throws IOException {
+        file(name, "a".repeat(size), ageDays);
+    }
+
+    /**
+     * @param ageDays возраст файла; отрицательный - файл изменен после старта прогона
+     */
+    private void file(String name, String content, int ageDays) throws IOException {
+        Path file = Files.writeString(results.resolve(name), content);
+        Instant modified = ageDays < 0 ? RUN_STARTED.plusSeconds(1) : RUN_STARTED.minus(Duration.ofDays(ageDays));
+        Files.setLastModifiedTime(file, FileTime.from(modified));
+    }
+
+    private void assertDeleted(String... names) {
+        for (String name : names) {
+            assertFalse(Files.exists(results.resolve(name)), name + " должен быть удален");
+        }
+    }
+
+    private void assertKept(String... names) {
+        for (String name : names) {
+            assertTrue(Files.exists(results.resolve(name)), name + " должен остаться");
+        }
+    }
+}
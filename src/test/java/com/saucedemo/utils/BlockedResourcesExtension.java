@@ -0,0 +1,35 @@
+package com.saucedemo.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.Map;
+
+/**
+ * В облегченном режиме браузера (browser.lightweight) прикладывает к тесту,
+ * сколько запросов браузера было заблокировано
+ */
+public class BlockedResourcesExtension implements AfterEachCallback {
+    private static final Logger logger = LogManager.getLogger(BlockedResourcesExtension.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        if (!ConfigReader.getInstance().isLightweightBrowser()) {
+            return;
+        }
+        DriverManager.getExistingDriver().ifPresent(driver -> {
+            try {
+                Map<String, Object> stats = LightweightBrowser.collectStats(driver);
+                logger.info("Запросы браузера: {}", stats);
+                AttachmentStore.attach("Заблокированные ресурсы", "application/json",
+                        mapper.writeValueAsString(stats), ".json");
+            } catch (Exception e) {
+                logger.warn("Не удалось собрать статистику запросов: {}", e.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package com.saucedemo.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Прикладывает к тесту ресурсы процессов браузера его сессии
+ * (RSS, CPU за тест, открытые дескрипторы; process.monitor.enabled)
+ */
+public class BrowserProcessExtension implements AfterEachCallback {
+    private static final Logger logger = LogManager.getLogger(BrowserProcessExtension.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        DriverManager.getExistingDriver().flatMap(BrowserProcessMonitor::sample).ifPresent(stats -> {
+            try {
+                logger.info("Процессы браузера: {}", stats);
+                AttachmentStore.attach("Ресурсы браузера", "application/json",
+                        mapper.writeValueAsString(stats), ".json");
+            } catch (Exception e) {
+                logger.warn("Не удалось приложить ресурсы браузера: {}", e.getMessage());
+            }
+        });
+    }
+}
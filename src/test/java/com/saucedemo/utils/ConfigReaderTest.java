@@ -0,0 +1,83 @@
+package com.saucedemo.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Слои и проверка конфигурации")
+public class ConfigReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Каждый следующий слой переопределяет предыдущий")
+    public void testLayerOrder() throws IOException {
+        Path externalFile = directory.resolve("external.properties");
+        Files.writeString(externalFile, """
+                load.users=9
+                load.duration.seconds=40
+                """);
+        Map<String, String> environment = Map.of(
+                "SAUCEDEMO_LOAD_DURATION_SECONDS", "50",
+                "SAUCEDEMO_LOAD_RAMP_UP_SECONDS", "6");
+        Properties system = new Properties();
+        system.setProperty("load.ramp.up.seconds", "7");
+        system.setProperty("not.declared", "1");
+
+        ConfigReader config = new ConfigReader("load",
+                ConfigReader.loadLayers("load", externalFile.toString(), environment, system));
+
+        assertEquals("generated", config.getPageLocators(), "config.properties");
+        assertEquals(500, config.getStubGlitchDelayMs(), "профиль переопределяет config.properties");
+        assertEquals(9, config.getLoadUsers(), "внешний файл переопределяет профиль");
+        assertEquals(50, config.getLoadDurationSeconds(), "окружение переопределяет внешний файл");
+        assertEquals(7, config.getLoadRampUpSeconds(), "-D переопределяет окружение");
+        assertNull(config.getProperty("not.declared"), "-D не добавляет необъявленные параметры");
+    }
+
+    @Test
+    @DisplayName("Конфигурация по умолчанию корректна, нагрузочный тест выключен")
+    public void testDefaultConfigIsValid() {
+        ConfigReader config = new ConfigReader(null, defaults());
+        assertFalse(config.isLoadEnabled());
+        assertEquals(0f, config.getLoadTargetRate());
+    }
+
+    @Test
+    @DisplayName("Все ошибки конфигурации сообщаются одним исключением")
+    public void testValidationErrorsAreCombined() {
+        Map<String, String> values = defaults();
+        values.put("base.url", " ");
+        values.put("explicit.wait", "ten");
+        values.put("driver.offline", "yes");
+        values.put("page.locators", "proxy");
+        values.remove("load.target.rate");
+        values.remove("performance.threshold.ms");
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> new ConfigReader(null, values));
+        String message = error.getMessage();
+        assertTrue(message.contains("base.url: обязательный параметр не задан"), message);
+        assertTrue(message.contains("explicit.wait: неверный формат числа 'ten'"), message);
+        assertTrue(message.contains("driver.offline: ожидается true или false"), message);
+        assertTrue(message.contains("page.locators: допустимые значения"), message);
+        assertTrue(message.contains("load.target.rate: параметр не объявлен"), message);
+        assertTrue(message.contains("performance.threshold.ms: параметр не объявлен"), message);
+    }
+
+    private static Map<String, String> defaults() {
+        return ConfigReader.loadLayers(null, null, Map.of(), new Properties());
+    }
+}
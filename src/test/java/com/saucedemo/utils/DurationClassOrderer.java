@@ -0,0 +1,30 @@
+package com.saucedemo.utils;
+
+import org.junit.jupiter.api.ClassDescriptor;
+import org.junit.jupiter.api.ClassOrderer;
+import org.junit.jupiter.api.ClassOrdererContext;
+
+import java.util.Comparator;
+
+/**
+ * Порядок классов по истории прошлых прогонов: сначала классы с недавно упавшими
+ * тестами, затем по убыванию суммарной длительности. При параллельном запуске
+ * долгие классы стартуют первыми и не удлиняют хвост прогона.
+ * Подключается в junit-platform.properties (junit.jupiter.testclass.order.default)
+ */
+public class DurationClassOrderer implements ClassOrderer {
+
+    @Override
+    public void orderClasses(ClassOrdererContext context) {
+        TestHistory history = TestHistory.getInstance();
+        if (history.isEmpty()) {
+            return;
+        }
+        Comparator<ClassDescriptor> failedFirst = Comparator.comparing(
+                descriptor -> !history.isClassRecentlyFailed(descriptor.getTestClass().getName()));
+        Comparator<ClassDescriptor> longestFirst = Comparator.comparingLong(
+                (ClassDescriptor descriptor) -> history.getClassDurationMs(descriptor.getTestClass().getName()))
+                .reversed();
+        context.getClassDescriptors().sort(failedFirst.thenComparing(longestFirst));
+    }
+}
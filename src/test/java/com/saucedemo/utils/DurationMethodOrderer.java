@@ -0,0 +1,42 @@
+package com.saucedemo.utils;
+
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.Comparator;
+import java.util.Optional;
+
+/**
+ * Порядок тестов внутри класса по истории прошлых прогонов: сначала недавно
+ * упавшие, затем самые долгие. Тесты без истории получают медианную длительность.
+ * Подключается в junit-platform.properties (junit.jupiter.testmethod.order.default)
+ */
+public class DurationMethodOrderer implements MethodOrderer {
+
+    @Override
+    public void orderMethods(MethodOrdererContext context) {
+        TestHistory history = TestHistory.getInstance();
+        if (history.isEmpty()) {
+            return;
+        }
+        String className = context.getTestClass().getName();
+        Comparator<MethodDescriptor> failedFirst = Comparator.comparing(
+                descriptor -> !history.isMethodRecentlyFailed(className, descriptor.getMethod().getName()));
+        Comparator<MethodDescriptor> longestFirst = Comparator.comparingLong(
+                (MethodDescriptor descriptor) -> history.getMethodDurationMs(className,
+                        descriptor.getMethod().getName()))
+                .reversed();
+        context.getMethodDescriptors().sort(failedFirst.thenComparing(longestFirst));
+    }
+
+    /**
+     * Порядок задает только очередность старта: режим по умолчанию (SAME_THREAD)
+     * сделал бы тесты каждого класса последовательными
+     */
+    @Override
+    public Optional<ExecutionMode> getDefaultExecutionMode() {
+        return Optional.empty();
+    }
+}
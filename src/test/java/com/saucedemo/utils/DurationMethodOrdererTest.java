@@ -0,0 +1,53 @@
+package com.saucedemo.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.testkit.engine.EngineTestKit;
+
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+
+@DisplayName("Порядок тестов по истории прогонов")
+public class DurationMethodOrdererTest {
+
+    @Test
+    @DisplayName("Упорядочивание не отключает параллельный запуск тестов класса")
+    public void testMethodsOfOneClassRunConcurrently() {
+        assertTrue(new DurationMethodOrderer().getDefaultExecutionMode().isEmpty(),
+                "Orderer не должен задавать режим выполнения");
+
+        EngineTestKit.engine("junit-jupiter")
+                .configurationParameter("junit.jupiter.execution.parallel.enabled", "true")
+                .configurationParameter("junit.jupiter.execution.parallel.mode.default", "concurrent")
+                .configurationParameter("junit.jupiter.execution.parallel.config.strategy", "fixed")
+                .configurationParameter("junit.jupiter.execution.parallel.config.fixed.parallelism", "2")
+                .configurationParameter("junit.jupiter.testmethod.order.default",
+                        DurationMethodOrderer.class.getName())
+                .selectors(selectClass(ConcurrentPair.class))
+                .execute()
+                .testEvents()
+                .assertStatistics(stats -> stats.started(2).succeeded(2));
+    }
+
+    /**
+     * Оба теста ждут друг друга на барьере: при последовательном запуске
+     * первый не дождется второго и упадет по таймауту.
+     * Запускается только через EngineTestKit (вложенные классы surefire не выбирает)
+     */
+    static class ConcurrentPair {
+        private static final CyclicBarrier barrier = new CyclicBarrier(2);
+
+        @Test
+        void first() throws Exception {
+            barrier.await(10, TimeUnit.SECONDS);
+        }
+
+        @Test
+        void second() throws Exception {
+            barrier.await(10, TimeUnit.SECONDS);
+        }
+    }
+}
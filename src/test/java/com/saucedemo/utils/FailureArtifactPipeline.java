@@ -0,0 +1,202 @@
+package com.saucedemo.utils;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Сбор артефактов упавшего теста: скриншот, DOM и консоль браузера.
+ * В потоке теста из существующей сессии снимаются только сырые данные,
+ * а сжатие скриншота и запись вложений выполняются в ограниченном фоновом пуле.
+ * Вложения регистрируются в результате теста сразу, файлы дописываются позже;
+ * если файл записать не удалось, ссылка на него убирается из результатов.
+ * flush() в конце прогона гарантирует, что все файлы записаны.
+ * Файлы хранятся в AttachmentStore: одинаковые артефакты записываются один раз.
+ */
+public final class FailureArtifactPipeline {
+    private static final Logger logger = LogManager.getLogger(FailureArtifactPipeline.class);
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final ThreadPoolExecutor executor = createExecutor();
+    // Число поставленных, но еще не выполненных задач записи; монитор - сам счетчик
+    private static final Object pendingLock = new Object();
+    private static int pending;
+
+    private FailureArtifactPipeline() {
+        // Утилитарный класс
+    }
+
+    private static ThreadPoolExecutor createExecutor() {
+        ConfigReader config = ConfigReader.getInstance();
+        int threads = config.getArtifactThreads();
+        // При переполнении очереди работу выполняет поток теста - память не растет бесконечно
+        return new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(config.getArtifactQueueSize()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "failure-artifacts-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Снимает артефакты с браузера текущего теста и ставит их обработку в очередь
+     */
+    public static void capture(WebDriver driver, boolean withScreenshot) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        Optional<String> testCase = lifecycle.getCurrentTestCase();
+        if (testCase.isEmpty()) {
+            logger.warn("Нет активного теста Allure - артефакты не собираются");
+            return;
+        }
+        String testUuid = testCase.get();
+
+        if (withScreenshot) {
+            try {
+                byte[] png = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+                submit(lifecycle, testUuid, "Скриншот при падении", "image/jpeg", ".jpg", png,
+                        () -> compressScreenshot(png));
+            } catch (Exception e) {
+                logger.error("Не удалось сделать скриншот: {}", e.getMessage());
+            }
+        }
+
+        try {
+            byte[] pageSource = driver.getPageSource().getBytes(StandardCharsets.UTF_8);
+            submit(lifecycle, testUuid, "DOM страницы", "text/html", ".html", pageSource, () -> pageSource);
+        } catch (Exception e) {
+            logger.error("Не удалось получить DOM страницы: {}", e.getMessage());
+        }
+
+        try {
+            List<LogEntry> entries = driver.manage().logs().get(LogType.BROWSER).getAll();
+            byte[] console = entries.stream().map(LogEntry::toString).collect(Collectors.joining("\n"))
+                    .getBytes(StandardCharsets.UTF_8);
+            submit(lifecycle, testUuid, "Консоль браузера", "text/plain", ".txt", console, () -> console);
+        } catch (Exception e) {
+            logger.error("Не удалось получить логи консоли браузера: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Дожидается записи всех поставленных в очередь вложений. Пул не останавливается:
+     * в той же JVM могут быть следующие прогоны (перезапуск упавших тестов, повторный запуск)
+     */
+    public static void flush(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (pendingLock) {
+            try {
+                while (pending > 0) {
+                    long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remainingMillis <= 0) {
+                        logger.warn("Не все артефакты упавших тестов записаны за {} с (осталось {})",
+                                timeout.toSeconds(), pending);
+                        return;
+                    }
+                    pendingLock.wait(remainingMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Имя вложения вычисляется по исходным данным key в потоке теста; если такое вложение
+     * уже есть в хранилище, обработка и запись не выполняются
+     */
+    private static void submit(AllureLifecycle lifecycle, String testUuid, String name, String type,
+                               String extension, byte[] key, ContentProducer producer) {
+        AttachmentStore.Target target = AttachmentStore.prepare(key, type, extension);
+        AttachmentStore.register(lifecycle, testUuid, name, target);
+        if (!target.write()) {
+            logger.debug("Вложение '{}' уже сохранено: {}", name, target.source());
+            return;
+        }
+
+        synchronized (pendingLock) {
+            pending++;
+        }
+        executor.execute(() -> {
+            try {
+                AttachmentStore.write(target, producer.produce());
+            } catch (Exception e) {
+                logger.error("Не удалось записать вложение '{}': {}", name, e.getMessage());
+                AttachmentStore.abandon(target);
+            } finally {
+                synchronized (pendingLock) {
+                    if (--pending == 0) {
+                        pendingLock.notifyAll();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Уменьшает скриншот до screenshot.max.width и перекодирует в JPEG
+     */
+    private static byte[] compressScreenshot(byte[] png) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+        if (source == null) {
+            return png;
+        }
+
+        ConfigReader config = ConfigReader.getInstance();
+        int maxWidth = config.getScreenshotMaxWidth();
+        int width = Math.min(source.getWidth(), maxWidth);
+        int height = (int) Math.round((double) source.getHeight() * width / source.getWidth());
+
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        graphics.drawImage(source, 0, 0, width, height, null);
+        graphics.dispose();
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam params = writer.getDefaultWriteParam();
+        params.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        params.setCompressionQuality(config.getScreenshotJpegQuality());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            writer.write(null, new IIOImage(scaled, null, null), params);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface ContentProducer {
+        byte[] produce() throws IOException;
+    }
+}
@@ -0,0 +1,30 @@
+package com.saucedemo.utils;
+
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Метрики страниц из браузера (page.metrics.enabled) для каждого теста.
+ * Прикладываются к Allure в JSON; регрессии относительно базовых помечаются тегом
+ */
+public class PageMetricsExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        PageMetrics.startTest();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        PageMetrics.TestPageMetrics pageMetrics = PageMetrics.finishTest();
+        if (pageMetrics == null || pageMetrics.isEmpty()) {
+            return;
+        }
+        AttachmentStore.attach("Метрики страниц", "application/json", pageMetrics.toJson(), ".json");
+        if (!pageMetrics.getRegressions().isEmpty()) {
+            Allure.label("tag", "page-performance-regression");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.saucedemo.utils;
+
+import com.saucedemo.constants.Constants;
+import io.qameta.allure.Allure;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Сбор задержек команд WebDriver для каждого теста и контроль бюджета времени.
+ * Метрики теста прикладываются к Allure в JSON (command.metrics.enabled); при превышении
+ * Constants.PERFORMANCE_THRESHOLD_MS тест помечается или падает (performance.budget.mode)
+ */
+public class PerformanceBudgetExtension implements BeforeEachCallback, AfterEachCallback {
+    private static final Logger logger = LogManager.getLogger(PerformanceBudgetExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        CommandMetrics.startTest(context.getDisplayName());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        CommandMetrics.TestMetrics metrics = CommandMetrics.finishTest();
+        if (metrics == null) {
+            return;
+        }
+
+        // Без замера команд гистограммы пусты - прикладывать нечего, но бюджет проверяется
+        if (ConfigReader.getInstance().isCommandMetricsEnabled()) {
+            AttachmentStore.attach("Задержки команд WebDriver", "application/json", metrics.toJson(), ".json");
+        }
+
+        long elapsed = metrics.getElapsedMillis();
+        if (elapsed <= Constants.PERFORMANCE_THRESHOLD_MS) {
+            return;
+        }
+
+        String message = String.format("Тест '%s' превысил бюджет времени: %d мс при лимите %d мс "
+                        + "(из них команды WebDriver: %d мс)", metrics.getTestName(), elapsed,
+                Constants.PERFORMANCE_THRESHOLD_MS, metrics.getTotalCommandMillis());
+        logger.warn("⏱ {}", message);
+        Allure.label("tag", "performance-budget-exceeded");
+
+        if ("fail".equalsIgnoreCase(ConfigReader.getInstance().getPerformanceBudgetMode())) {
+            throw new AssertionError(message);
+        }
+    }
+}
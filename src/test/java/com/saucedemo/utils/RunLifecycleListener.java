@@ -0,0 +1,81 @@
+package com.saucedemo.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.saucedemo.pages.ElementCacheStats;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Действия в конце всего прогона: сводные отчеты и закрытие оставшихся браузеров.
+ * Регистрируется через META-INF/services
+ */
+public class RunLifecycleListener implements TestExecutionListener {
+    private static final Logger logger = LogManager.getLogger(RunLifecycleListener.class);
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        // Хук останавливает Log4j при выходе из JVM (собственный хук Log4j отключен)
+        BrowserProcessMonitor.installShutdownHook();
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        FailureArtifactPipeline.flush(Duration.ofSeconds(60));
+        AttachmentStore.prune();
+        ConfigReader config = ConfigReader.getInstance();
+        // Каждый шард пишет свой файл: храним последние test.history.runs запусков каждого шарда
+        TestHistory.recordRun(Paths.get(System.getProperty("allure.results.directory", "allure-results")),
+                Paths.get(config.getTestHistoryDirectory()),
+                config.getTestHistoryRuns() * Math.max(1, config.getShardTotal()));
+        String reportDirectory = config.getPerformanceReportDirectory();
+        writeShardDurations(Paths.get(reportDirectory, "shard-durations.json"), config);
+        CommandMetrics.writeRunReport(Paths.get(reportDirectory, "webdriver-latency.json"));
+        PageMetrics.writeRunReport(Paths.get(reportDirectory, "page-metrics.json"));
+        writeElementCacheStats(Paths.get(reportDirectory, "element-cache.json"), config);
+        DriverManager.quitAllDrivers();
+    }
+
+    /**
+     * Попадания, промахи и обновления устаревших элементов кэша page objects за прогон
+     */
+    private static void writeElementCacheStats(Path file, ConfigReader config) {
+        if (!config.isElementCacheEnabled()) {
+            return;
+        }
+        logger.info("Кэш элементов: {}", ElementCacheStats.summary());
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            mapper.writeValue(file.toFile(), ElementCacheStats.snapshot());
+        } catch (IOException e) {
+            logger.warn("Не удалось сохранить статистику кэша элементов {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Длительности классов по истории, включая этот прогон, - входные данные
+     * для следующего шардированного прогона (shard.durations)
+     */
+    private static void writeShardDurations(Path file, ConfigReader config) {
+        TestHistory history = TestHistory.load(Paths.get(config.getTestHistoryDirectory()),
+                config.getTestHistoryRuns());
+        if (history.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            mapper.writeValue(file.toFile(), history.getClassDurations());
+        } catch (IOException e) {
+            logger.warn("Не удалось сохранить длительности классов {}: {}", file, e.getMessage());
+        }
+    }
+}
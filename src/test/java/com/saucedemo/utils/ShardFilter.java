@@ -0,0 +1,162 @@
+package com.saucedemo.utils;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.platform.engine.FilterResult;
+import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestSource;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.PostDiscoveryFilter;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Разбиение набора тестов на шарды (shard.index из shard.total) для нескольких JVM
+ * или CI-машин. Единица разбиения - тестовый класс. Каждая машина вычисляет разбиение
+ * сама, поэтому оно зависит только от общих входных данных, а не от локальной истории:
+ * <ul>
+ *     <li>с файлом длительностей классов (shard.durations, закоммиченный или переданный
+ *     CI) классы распределяются жадно: самый долгий - в наименее загруженный шард;</li>
+ *     <li>без него - поровну по числу классов, по кругу в порядке имен.</li>
+ * </ul>
+ * Регистрируется через META-INF/services
+ */
+public class ShardFilter implements PostDiscoveryFilter {
+    private static final Logger logger = LogManager.getLogger(ShardFilter.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final int shardIndex;
+    private final int shardTotal;
+    // Длительности классов, мс; пусто - распределение по числу классов
+    private final Map<String, Long> durations;
+    // Классы текущего шарда; вычисляются при обходе корня дерева тестов
+    private Set<String> shardClasses;
+
+    public ShardFilter() {
+        ConfigReader config = ConfigReader.getInstance();
+        this.shardIndex = config.getShardIndex();
+        this.shardTotal = config.getShardTotal();
+        if (shardTotal < 1 || shardIndex < 0 || shardIndex >= shardTotal) {
+            throw new IllegalStateException("Неверные параметры шардирования: shard.index=" + shardIndex
+                    + ", shard.total=" + shardTotal);
+        }
+        this.durations = shardTotal > 1 ? readDurations(config.getShardDurationsFile()) : Map.of();
+    }
+
+    @Override
+    public FilterResult apply(TestDescriptor descriptor) {
+        if (shardTotal == 1) {
+            return FilterResult.included("шардирование выключено");
+        }
+        if (descriptor.isRoot()) {
+            shardClasses = assign(descriptor);
+            return FilterResult.included("корень");
+        }
+
+        String className = className(descriptor.getSource().orElse(null));
+        if (className == null || shardClasses == null || shardClasses.contains(className)) {
+            return FilterResult.included("шард " + shardIndex);
+        }
+        return FilterResult.excluded("класс в другом шарде");
+    }
+
+    /**
+     * Классы текущего шарда
+     */
+    private Set<String> assign(TestDescriptor root) {
+        Set<String> classes = new TreeSet<>();
+        collectClasses(root, classes);
+        List<Set<String>> shards = assign(classes, durations, shardTotal);
+        logger.info("Шард {}/{}: {} из {} классов ({})", shardIndex + 1, shardTotal,
+                shards.get(shardIndex).size(), classes.size(),
+                durations.isEmpty() ? "по числу классов" : "по длительностям " + durations.size() + " классов");
+        return shards.get(shardIndex);
+    }
+
+    /**
+     * Классы каждого шарда. Результат зависит только от аргументов: на всех машинах
+     * шарды вместе покрывают каждый класс ровно один раз
+     *
+     * @param durations длительности классов, мс; классы без длительности весят как медиана
+     *                  известных; пусто - все классы весят одинаково (поровну по числу классов)
+     */
+    static List<Set<String>> assign(Set<String> classes, Map<String, Long> durations, int shardTotal) {
+        List<Set<String>> shards = new ArrayList<>();
+        for (int shard = 0; shard < shardTotal; shard++) {
+            shards.add(new TreeSet<>());
+        }
+
+        long fallback = 1;
+        if (!durations.isEmpty()) {
+            List<Long> known = new ArrayList<>(durations.values());
+            Collections.sort(known);
+            fallback = known.get(known.size() / 2);
+        }
+        List<Map.Entry<String, Long>> weights = new ArrayList<>();
+        for (String className : classes) {
+            weights.add(Map.entry(className, Math.max(1, durations.getOrDefault(className, fallback))));
+        }
+        weights.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+
+        long[] loads = new long[shardTotal];
+        for (Map.Entry<String, Long> weight : weights) {
+            int target = 0;
+            for (int shard = 1; shard < shardTotal; shard++) {
+                if (loads[shard] < loads[target]) {
+                    target = shard;
+                }
+            }
+            loads[target] += weight.getValue();
+            shards.get(target).add(weight.getKey());
+        }
+        logger.debug("Оценка шардов, мс: {}", Arrays.toString(loads));
+        return shards;
+    }
+
+    /**
+     * Файл {"имя.класса": мс, ...}; явно указанный, но нечитаемый файл - ошибка,
+     * иначе машины разошлись бы в разбиении
+     */
+    private static Map<String, Long> readDurations(String file) {
+        if (file == null || file.isBlank()) {
+            return Map.of();
+        }
+        try {
+            return mapper.readValue(Paths.get(file).toFile(), new TypeReference<Map<String, Long>>() { });
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось прочитать длительности классов shard.durations=" + file, e);
+        }
+    }
+
+    private static void collectClasses(TestDescriptor descriptor, Set<String> classes) {
+        String className = className(descriptor.getSource().orElse(null));
+        if (className != null) {
+            classes.add(className);
+        }
+        descriptor.getChildren().forEach(child -> collectClasses(child, classes));
+    }
+
+    private static String className(TestSource source) {
+        if (source instanceof MethodSource method) {
+            return method.getClassName();
+        }
+        if (source instanceof ClassSource type) {
+            return type.getClassName();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,69 @@
+package com.saucedemo.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DisplayName("Разбиение тестов на шарды")
+public class ShardFilterTest {
+    private static final int CLASSES = 23;
+
+    @ParameterizedTest(name = "shard.total={0}")
+    @ValueSource(ints = {1, 2, 3, 4, 7})
+    @DisplayName("Без файла длительностей шарды покрывают каждый класс ровно один раз и поровну")
+    public void testCountShardsCoverEveryClassOnce(int shardTotal) {
+        List<Set<String>> shards = ShardFilter.assign(classes(), Map.of(), shardTotal);
+        assertCoversOnce(shards);
+        int smallest = shards.stream().mapToInt(Set::size).min().orElseThrow();
+        int largest = shards.stream().mapToInt(Set::size).max().orElseThrow();
+        assertTrue(largest - smallest <= 1, "Шарды должны отличаться не больше чем на один класс: " + shards);
+    }
+
+    @ParameterizedTest(name = "shard.total={0}")
+    @ValueSource(ints = {1, 2, 3, 4, 7})
+    @DisplayName("С файлом длительностей шарды покрывают каждый класс ровно один раз")
+    public void testDurationShardsCoverEveryClassOnce(int shardTotal) {
+        Map<String, Long> durations = new HashMap<>();
+        // Часть классов без длительности: новые тесты, которых нет в файле
+        for (int i = 0; i < CLASSES; i += 2) {
+            durations.put(className(i), 1000L * (i % 5 + 1));
+        }
+        List<Set<String>> shards = ShardFilter.assign(classes(), durations, shardTotal);
+        assertCoversOnce(shards);
+        assertEquals(shards, ShardFilter.assign(classes(), new TreeMap<>(durations), shardTotal),
+                "Разбиение должно зависеть только от входных данных");
+    }
+
+    private static void assertCoversOnce(List<Set<String>> shards) {
+        Set<String> covered = new TreeSet<>();
+        int total = 0;
+        for (Set<String> shard : shards) {
+            covered.addAll(shard);
+            total += shard.size();
+        }
+        assertEquals(classes(), covered, "Каждый класс должен попасть в какой-то шард");
+        assertEquals(CLASSES, total, "Класс не должен попасть в несколько шардов");
+    }
+
+    private static Set<String> classes() {
+        Set<String> classes = new TreeSet<>();
+        for (int i = 0; i < CLASSES; i++) {
+            classes.add(className(i));
+        }
+        return classes;
+    }
+
+    private static String className(int index) {
+        return "com.saucedemo.tests.Generated" + index + "Tests";
+    }
+}
@@ -0,0 +1,250 @@
+package com.saucedemo.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * История прошлых прогонов. В конце прогона результаты Allure (*-result.json) этой JVM
+ * сжимаются в один файл &lt;время&gt;-&lt;uuid&gt;-history.json в каталоге test.history.dir,
+ * который не удаляется mvn clean; каталог можно также указать прямо на результаты Allure.
+ * Для каждого теста хранится средняя длительность последних запусков
+ * и признак падения в последнем запуске. Загружается один раз за прогон
+ */
+public final class TestHistory {
+    private static final Logger logger = LogManager.getLogger(TestHistory.class);
+    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final String RESULT_SUFFIX = "-result.json";
+    private static final String HISTORY_SUFFIX = "-history.json";
+
+    private final Map<String, Entry> methods;
+    private final Map<String, Entry> classes;
+    private final long defaultDurationMs;
+
+    // Загружается при первом обращении
+    private static final class Holder {
+        private static final TestHistory INSTANCE = load(
+                Paths.get(ConfigReader.getInstance().getTestHistoryDirectory()),
+                ConfigReader.getInstance().getTestHistoryRuns());
+    }
+
+    private TestHistory(Map<String, Entry> methods) {
+        this.methods = methods;
+        this.classes = new HashMap<>();
+        methods.forEach((key, entry) -> classes.merge(key.substring(0, key.indexOf('#')), entry, Entry::combine));
+        this.defaultDurationMs = median(methods.values());
+    }
+
+    public static TestHistory getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Оценка длительности теста, мс. Для тестов без истории - медиана известных
+     */
+    public long getMethodDurationMs(String className, String methodName) {
+        Entry entry = methods.get(key(className, methodName));
+        return entry != null ? entry.durationMs : defaultDurationMs;
+    }
+
+    /**
+     * Оценка длительности класса, мс: сумма его тестов
+     */
+    public long getClassDurationMs(String className) {
+        Entry entry = classes.get(className);
+        return entry != null ? entry.durationMs : defaultDurationMs;
+    }
+
+    /**
+     * Длительности всех известных классов, мс, по имени (формат файла shard.durations)
+     */
+    public Map<String, Long> getClassDurations() {
+        Map<String, Long> durations = new TreeMap<>();
+        classes.forEach((className, entry) -> durations.put(className, entry.durationMs));
+        return durations;
+    }
+
+    /**
+     * Упал ли тест в последнем запуске
+     */
+    public boolean isMethodRecentlyFailed(String className, String methodName) {
+        Entry entry = methods.get(key(className, methodName));
+        return entry != null && entry.recentlyFailed;
+    }
+
+    /**
+     * Упал ли в последнем запуске хотя бы один тест класса
+     */
+    public boolean isClassRecentlyFailed(String className) {
+        Entry entry = classes.get(className);
+        return entry != null && entry.recentlyFailed;
+    }
+
+    public boolean isEmpty() {
+        return methods.isEmpty();
+    }
+
+    /**
+     * Читает результаты из каталога и его подкаталогов (например, по шардам)
+     *
+     * @param runs сколько последних запусков каждого теста учитывать
+     */
+    static TestHistory load(Path directory, int runs) {
+        if (!Files.isDirectory(directory)) {
+            logger.info("История прогонов не найдена ({}), порядок тестов по умолчанию", directory);
+            return new TestHistory(Collections.emptyMap());
+        }
+
+        Map<String, List<Run>> runsByTest = new HashMap<>();
+        try (Stream<Path> files = Files.walk(directory, 3)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.endsWith(RESULT_SUFFIX)) {
+                    readRun(readTree(file), runsByTest);
+                } else if (name.endsWith(HISTORY_SUFFIX)) {
+                    readTree(file).forEach(result -> readRun(result, runsByTest));
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Не удалось прочитать историю прогонов из {}: {}", directory, e.getMessage());
+        }
+
+        Map<String, Entry> methods = new HashMap<>();
+        runsByTest.forEach((test, testRuns) -> {
+            testRuns.sort(Comparator.comparingLong(Run::stop).reversed());
+            List<Run> recent = testRuns.subList(0, Math.min(Math.max(1, runs), testRuns.size()));
+            long average = Math.round(recent.stream().mapToLong(Run::durationMs).average().orElse(0));
+            methods.put(test, new Entry(average, recent.get(0).failed()));
+        });
+        logger.info("История прогонов: {} тестов из {}", methods.size(), directory);
+        return new TestHistory(methods);
+    }
+
+    /**
+     * Сохраняет результаты тестов этой JVM из каталога Allure в каталог истории
+     * и удаляет самые старые файлы истории сверх keepFiles
+     */
+    public static void recordRun(Path resultsDirectory, Path historyDirectory, int keepFiles) {
+        if (!Files.isDirectory(resultsDirectory)) {
+            return;
+        }
+        // Каталог результатов мог не очищаться: берем только результаты, завершенные после старта JVM
+        long jvmStart = ProcessHandle.current().info().startInstant().map(Instant::toEpochMilli).orElse(0L);
+        ArrayNode run = mapper.createArrayNode();
+        try (Stream<Path> files = Files.list(resultsDirectory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(RESULT_SUFFIX))
+                    .map(TestHistory::readTree)
+                    .filter(result -> result.path("stop").asLong() >= jvmStart && label(result, "testClass") != null)
+                    .forEach(result -> run.addObject()
+                            .put("testClass", label(result, "testClass"))
+                            .put("testMethod", label(result, "testMethod"))
+                            .put("start", result.path("start").asLong())
+                            .put("stop", result.path("stop").asLong())
+                            .put("status", result.path("status").asText()));
+        } catch (IOException e) {
+            logger.warn("Не удалось прочитать результаты {}: {}", resultsDirectory, e.getMessage());
+            return;
+        }
+        if (run.isEmpty()) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(historyDirectory);
+            Path file = historyDirectory.resolve(System.currentTimeMillis() + "-" + UUID.randomUUID() + HISTORY_SUFFIX);
+            mapper.writeValue(file.toFile(), run);
+            logger.info("История прогона сохранена: {} ({} тестов)", file, run.size());
+
+            List<Path> history;
+            try (Stream<Path> files = Files.list(historyDirectory)) {
+                history = files.filter(path -> path.getFileName().toString().endsWith(HISTORY_SUFFIX))
+                        .sorted(Comparator.comparing((Path path) -> path.getFileName().toString()).reversed())
+                        .toList();
+            }
+            for (Path old : history.subList(Math.min(keepFiles, history.size()), history.size())) {
+                Files.deleteIfExists(old);
+            }
+        } catch (IOException e) {
+            logger.warn("Не удалось сохранить историю прогона в {}: {}", historyDirectory, e.getMessage());
+        }
+    }
+
+    private static JsonNode readTree(Path file) {
+        try {
+            return mapper.readTree(file.toFile());
+        } catch (IOException e) {
+            logger.debug("Пропущен поврежденный результат {}: {}", file, e.getMessage());
+            return MissingNode.getInstance();
+        }
+    }
+
+    /**
+     * Результат Allure (метки testClass/testMethod) или запись файла истории (те же поля напрямую)
+     */
+    private static void readRun(JsonNode result, Map<String, List<Run>> runsByTest) {
+        String className = label(result, "testClass");
+        String methodName = label(result, "testMethod");
+        long start = result.path("start").asLong();
+        long stop = result.path("stop").asLong();
+        if (className == null || methodName == null || stop < start) {
+            return;
+        }
+        String status = result.path("status").asText();
+        boolean failed = "failed".equals(status) || "broken".equals(status);
+        runsByTest.computeIfAbsent(key(className, methodName), test -> new ArrayList<>())
+                .add(new Run(stop, stop - start, failed));
+    }
+
+    private static String label(JsonNode result, String name) {
+        if (result.hasNonNull(name)) {
+            return result.get(name).asText();
+        }
+        for (JsonNode label : result.path("labels")) {
+            if (name.equals(label.path("name").asText())) {
+                return label.path("value").asText();
+            }
+        }
+        return null;
+    }
+
+    private static long median(Iterable<Entry> entries) {
+        List<Long> durations = new ArrayList<>();
+        entries.forEach(entry -> durations.add(entry.durationMs));
+        if (durations.isEmpty()) {
+            return 0;
+        }
+        Collections.sort(durations);
+        return durations.get(durations.size() / 2);
+    }
+
+    private static String key(String className, String methodName) {
+        return className + "#" + methodName;
+    }
+
+    private record Run(long stop, long durationMs, boolean failed) {
+    }
+
+    private record Entry(long durationMs, boolean recentlyFailed) {
+        private static Entry combine(Entry first, Entry second) {
+            return new Entry(first.durationMs + second.durationMs, first.recentlyFailed || second.recentlyFailed);
+        }
+    }
+}
@@ -1,14 +1,11 @@
 package com.saucedemo.utils;
 
-import io.qameta.allure.Allure;
+import com.saucedemo.constants.Constants;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.extension.ExtensionContext;
 import org.junit.jupiter.api.extension.TestWatcher;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
 
-import java.io.ByteArrayInputStream;
 import java.util.Optional;
 
 public class TestListener implements TestWatcher {
@@ -18,7 +15,8 @@ public class TestListener implements TestWatcher {
     public void testSuccessful(ExtensionContext context) {
         String testName = context.getDisplayName();
         logger.info("✅ Тест успешен: {}", testName);
-        DriverManager.quitDriver();
+        // Сессия сбрасывается и возвращается в пул для следующего теста
+        DriverManager.releaseDriver();
     }
     
     @Override
@@ -26,23 +24,19 @@ public class TestListener implements TestWatcher {
         String testName = context.getDisplayName();
         logger.error("❌ Тест провален: {} - {}", testName, cause.getMessage());
         
-        // Скриншот при падении
-        try {
-            TakesScreenshot ts = (TakesScreenshot) DriverManager.getDriver();
-            byte[] screenshot = ts.getScreenshotAs(OutputType.BYTES);
-            Allure.addAttachment("Скриншот при падении", 
-                new ByteArrayInputStream(screenshot));
-        } catch (Exception e) {
-            logger.error("Не удалось сделать скриншот: {}", e.getMessage());
-        }
+        // Артефакты снимаются только с уже запущенного браузера, обработка - в фоне
+        DriverManager.getExistingDriver().ifPresentOrElse(
+            driver -> FailureArtifactPipeline.capture(driver, Constants.SCREENSHOT_ON_FAILURE),
+            () -> logger.debug("Браузер в тесте не запускался - артефакты не собираются"));
         
-        DriverManager.quitDriver();
+        // Состояние браузера после падения неизвестно - сессия не переиспользуется
+        DriverManager.discardDriver();
     }
     
     @Override
     public void testAborted(ExtensionContext context, Throwable cause) {
         logger.warn("⚠️ Тест прерван: {}", context.getDisplayName());
-        DriverManager.quitDriver();
+        DriverManager.discardDriver();
     }
     
     @Override
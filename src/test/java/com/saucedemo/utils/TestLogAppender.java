@@ -0,0 +1,105 @@
+package com.saucedemo.utils;
+
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Core;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.layout.PatternLayout;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Appender, собирающий события каждого теста в отдельный буфер.
+ * Тест определяется по ключу testId в ThreadContext, который контекст
+ * асинхронного логгера сохраняет вместе с событием.
+ */
+@Plugin(name = "TestLog", category = Core.CATEGORY_NAME, elementType = Appender.ELEMENT_TYPE)
+public class TestLogAppender extends AbstractAppender {
+    public static final String TEST_ID_KEY = "testId";
+    public static final String TEST_NAME_KEY = "testName";
+    // Событие с этим маркером последнее в логе теста: после него буфер можно забирать
+    public static final Marker END_MARKER = MarkerManager.getMarker("TEST_LOG_END");
+
+    private static final Map<String, TestBuffer> buffers = new ConcurrentHashMap<>();
+
+    protected TestLogAppender(String name, Filter filter, Layout<? extends Serializable> layout) {
+        super(name, filter, layout, true, Property.EMPTY_ARRAY);
+    }
+
+    @PluginFactory
+    public static TestLogAppender createAppender(@PluginAttribute("name") String name,
+                                                 @PluginElement("Layout") Layout<? extends Serializable> layout,
+                                                 @PluginElement("Filter") Filter filter) {
+        return new TestLogAppender(name, filter, layout == null ? PatternLayout.createDefaultLayout() : layout);
+    }
+
+    /**
+     * Начинает сбор лога теста
+     */
+    public static void begin(String testId) {
+        buffers.put(testId, new TestBuffer());
+    }
+
+    /**
+     * Ожидает, пока appender обработает маркер конца теста, и возвращает его лог
+     */
+    public static String finish(String testId, Duration timeout) {
+        TestBuffer buffer = buffers.get(testId);
+        if (buffer == null) {
+            return "";
+        }
+        try {
+            buffer.completed.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Отдаем то, что успело попасть в буфер
+        }
+        buffers.remove(testId);
+        synchronized (buffer) {
+            return buffer.content.toString();
+        }
+    }
+
+    @Override
+    public void append(LogEvent event) {
+        String testId = event.getContextData().getValue(TEST_ID_KEY);
+        if (testId == null) {
+            return;
+        }
+        TestBuffer buffer = buffers.get(testId);
+        if (buffer == null) {
+            return;
+        }
+        if (END_MARKER.equals(event.getMarker())) {
+            buffer.completed.complete(null);
+            return;
+        }
+        byte[] bytes = getLayout().toByteArray(event);
+        synchronized (buffer) {
+            buffer.content.append(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static final class TestBuffer {
+        private final StringBuilder content = new StringBuilder();
+        private final CompletableFuture<Void> completed = new CompletableFuture<>();
+    }
+}
@@ -0,0 +1,59 @@
+package com.saucedemo.utils;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.ThreadContext;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.TestWatcher;
+
+import java.time.Duration;
+
+/**
+ * Помечает логи текущего теста его идентификатором и прикладывает
+ * собранный лог теста к результату в Allure.
+ * Лог закрывается в callback TestWatcher, а не в afterEach: так в него попадают
+ * строка о падении и сбор артефактов из TestListener. TestWatcher вызываются
+ * в порядке, обратном регистрации, поэтому расширение регистрируется первым
+ */
+public class TestLogExtension implements BeforeEachCallback, TestWatcher {
+    private static final Logger logger = LogManager.getLogger(TestLogExtension.class);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(2);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        String testId = context.getUniqueId();
+        TestLogAppender.begin(testId);
+        ThreadContext.put(TestLogAppender.TEST_ID_KEY, testId);
+        ThreadContext.put(TestLogAppender.TEST_NAME_KEY, context.getDisplayName());
+    }
+
+    @Override
+    public void testSuccessful(ExtensionContext context) {
+        finish(context);
+    }
+
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        finish(context);
+    }
+
+    @Override
+    public void testAborted(ExtensionContext context, Throwable cause) {
+        finish(context);
+    }
+
+    private static void finish(ExtensionContext context) {
+        String testId = context.getUniqueId();
+        try {
+            logger.info(TestLogAppender.END_MARKER, "Конец лога теста");
+            String log = TestLogAppender.finish(testId, DRAIN_TIMEOUT);
+            if (!log.isEmpty()) {
+                AttachmentStore.attach("Лог теста", "text/plain", log, ".log");
+            }
+        } finally {
+            ThreadContext.remove(TestLogAppender.TEST_ID_KEY);
+            ThreadContext.remove(TestLogAppender.TEST_NAME_KEY);
+        }
+    }
+}